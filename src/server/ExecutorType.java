@@ -0,0 +1,8 @@
+package server;
+
+public enum ExecutorType {
+    DISPATCHER,
+    FIXED,
+    WORK_STEALING,
+    VIRTUAL
+}
@@ -0,0 +1,121 @@
+package server;
+
+import services.HistoryManager;
+import services.Managers;
+import tasks.Task;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class HistorySessions implements AutoCloseable {
+    public static final String SESSION_HEADER = "X-Session-Id";
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    private final LinkedHashMap<String, Session> sessions;
+    private final int capacity;
+    private final long idleTimeoutMillis;
+    private ScheduledExecutorService evictionExecutor;
+
+    public HistorySessions(int capacity, long idleTimeoutMillis) {
+        this(capacity, idleTimeoutMillis, DEFAULT_MAX_SESSIONS);
+    }
+
+    public HistorySessions(int capacity, long idleTimeoutMillis, int maxSessions) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Время жизни сессии должно быть больше нуля");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Число сессий должно быть больше нуля");
+        }
+        this.capacity = capacity;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > maxSessions;
+            }
+        };
+    }
+
+    public synchronized void start() {
+        if (evictionExecutor != null) {
+            return;
+        }
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-sessions-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutMillis / 2);
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(String sessionId, Task task) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.computeIfAbsent(sessionId, id -> new Session(Managers.getArrayHistory(capacity)));
+            session.lastAccess = System.currentTimeMillis();
+        }
+        session.historyManager.add(task);
+    }
+
+    public List<Task> getHistory(String sessionId) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(sessionId);
+            if (session == null) {
+                return List.of();
+            }
+            session.lastAccess = System.currentTimeMillis();
+        }
+        return session.historyManager.getHistory();
+    }
+
+    public void remove(int id) {
+        List<Session> activeSessions;
+        synchronized (sessions) {
+            activeSessions = List.copyOf(sessions.values());
+        }
+        activeSessions.forEach(session -> session.historyManager.remove(id));
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            Iterator<Session> iterator = sessions.values().iterator();
+            while (iterator.hasNext() && now - iterator.next().lastAccess > idleTimeoutMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+            evictionExecutor = null;
+        }
+    }
+
+    private static class Session {
+        private final HistoryManager historyManager;
+        private long lastAccess = System.currentTimeMillis();
+
+        private Session(HistoryManager historyManager) {
+            this.historyManager = historyManager;
+        }
+    }
+}
@@ -15,55 +15,116 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
 public class HttpTaskServer {
-    private static final int PORT = 8080;
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_HISTORY_CAPACITY = 1000;
+    private static final long DEFAULT_SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
     private final HttpServer taskServer;
     private final TaskManager taskManager;
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-            .registerTypeAdapter(Duration.class, new DurationAdapter())
-            .create();
+    private final ExecutorService executor;
+    private final HistorySessions historySessions;
+    private final IntConsumer sessionHistoryPurge;
+    private final int port;
+    private static final Gson gson = createGson(JsonProfile.PRETTY);
+    private static final Gson compactGson = createGson(JsonProfile.COMPACT);
 
     public HttpTaskServer() throws IOException {
-        taskManager = Managers.getDefault();
-
-        taskServer = HttpServer.create(new InetSocketAddress(PORT), 0);
-        taskServer.createContext("/tasks", new TasksHandler(taskManager));
-        taskServer.createContext("/subtasks", new SubtasksHandler(taskManager));
-        taskServer.createContext("/epics", new EpicsHandler(taskManager));
-        taskServer.createContext("/history", new HistoryHandler(taskManager));
-        taskServer.createContext("/prioritized", new PrioritizedHandler(taskManager));
+        this(Managers.getDefault());
     }
 
     public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, DEFAULT_PORT, 0, ExecutorType.DISPATCHER, 0);
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int port, int backlog, ExecutorType executorType,
+                          int threads) throws IOException {
+        this(taskManager, port, backlog, executorType, threads,
+                new HistorySessions(DEFAULT_HISTORY_CAPACITY, DEFAULT_SESSION_TIMEOUT_MILLIS));
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int port, int backlog, ExecutorType executorType,
+                          int threads, HistorySessions historySessions) throws IOException {
+        this(taskManager, port, backlog, executorType, threads, historySessions, JsonProfile.PRETTY);
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int port, int backlog, ExecutorType executorType,
+                          int threads, HistorySessions historySessions, JsonProfile jsonProfile) throws IOException {
+        Gson responseGson = getGson(jsonProfile);
         this.taskManager = taskManager;
+        this.port = port;
+        this.historySessions = historySessions;
+        sessionHistoryPurge = historySessions::remove;
+        taskManager.addRemovalListener(sessionHistoryPurge);
 
-        taskServer = HttpServer.create(new InetSocketAddress(PORT), 0);
-        taskServer.createContext("/tasks", new TasksHandler(taskManager));
-        taskServer.createContext("/subtasks", new SubtasksHandler(taskManager));
-        taskServer.createContext("/epics", new EpicsHandler(taskManager));
-        taskServer.createContext("/history", new HistoryHandler(taskManager));
-        taskServer.createContext("/prioritized", new PrioritizedHandler(taskManager));
+        taskServer = HttpServer.create(new InetSocketAddress(port), backlog);
+        executor = createExecutor(executorType, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        taskServer.setExecutor(executor);
+        taskServer.createContext("/tasks", new TasksHandler(taskManager, historySessions, responseGson));
+        taskServer.createContext("/subtasks", new SubtasksHandler(taskManager, historySessions, responseGson));
+        taskServer.createContext("/epics", new EpicsHandler(taskManager, historySessions, responseGson));
+        taskServer.createContext("/history", new HistoryHandler(taskManager, historySessions, responseGson));
+        taskServer.createContext("/prioritized", new PrioritizedHandler(taskManager, responseGson));
+    }
+
+    private static ExecutorService createExecutor(ExecutorType executorType, int threads) {
+        switch (executorType) {
+            case FIXED:
+                return Executors.newFixedThreadPool(threads);
+            case WORK_STEALING:
+                return Executors.newWorkStealingPool(threads);
+            case VIRTUAL:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            default:
+                return null;
+        }
+    }
+
+    private static Gson createGson(JsonProfile jsonProfile) {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapterFactory(new TaskAdapterFactory());
+        if (jsonProfile == JsonProfile.PRETTY) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
     }
 
     public static Gson getGson() {
         return gson;
     }
 
+    public static Gson getGson(JsonProfile jsonProfile) {
+        return jsonProfile == JsonProfile.COMPACT ? compactGson : gson;
+    }
+
     public void start() {
-        System.out.println("Сервер запущен на порту: " + PORT);
+        System.out.println("Сервер запущен на порту: " + port);
         taskServer.start();
+        historySessions.start();
     }
 
     public void stop() {
         System.out.println("Сервер остановлен");
         taskServer.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        taskManager.removeRemovalListener(sessionHistoryPurge);
+        historySessions.close();
     }
 
     public static void main(String[] args) throws IOException {
-        TaskManager taskManager = Managers.getDefault();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ExecutorType executorType = args.length > 1 ? ExecutorType.valueOf(args[1]) : ExecutorType.VIRTUAL;
+        int historyCapacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_HISTORY_CAPACITY;
+        JsonProfile jsonProfile = args.length > 3 ? JsonProfile.valueOf(args[3]) : JsonProfile.COMPACT;
+        TaskManager taskManager = Managers.getConcurrent(historyCapacity);
         Task task1 = new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
                 Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0));
         Epic epic1 = new Epic("Эпик 1", "Описание эпика 1");
@@ -75,7 +136,8 @@ public class HttpTaskServer {
         taskManager.addNewSubtask(subtask1);
 
 
-        HttpTaskServer taskServer = new HttpTaskServer(taskManager);
+        HttpTaskServer taskServer = new HttpTaskServer(taskManager, port, 0, executorType, 0,
+                new HistorySessions(historyCapacity, DEFAULT_SESSION_TIMEOUT_MILLIS), jsonProfile);
 
         taskServer.start();
     }
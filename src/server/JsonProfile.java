@@ -0,0 +1,6 @@
+package server;
+
+public enum JsonProfile {
+    PRETTY,
+    COMPACT
+}
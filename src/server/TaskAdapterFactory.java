@@ -0,0 +1,71 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+public class TaskAdapterFactory implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType != Task.class && rawType != Epic.class && rawType != Subtask.class) {
+            return null;
+        }
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter jsonWriter, T value) throws IOException {
+                if (value == null) {
+                    jsonWriter.nullValue();
+                    return;
+                }
+                jsonWriter.beginObject();
+                if (value instanceof Epic epic) {
+                    writeEpicFields(jsonWriter, epic);
+                } else if (value instanceof Subtask subtask) {
+                    jsonWriter.name("idOfEpic").value(subtask.getIdOfEpic());
+                }
+                writeTaskFields(jsonWriter, (Task) value);
+                jsonWriter.endObject();
+            }
+
+            @Override
+            public T read(JsonReader jsonReader) throws IOException {
+                return delegate.read(jsonReader);
+            }
+        };
+    }
+
+    private static void writeEpicFields(JsonWriter jsonWriter, Epic epic) throws IOException {
+        jsonWriter.name("subtaskIds").beginArray();
+        for (int id : epic.getSubtaskIds()) {
+            jsonWriter.value(id);
+        }
+        jsonWriter.endArray();
+        writeDateTime(jsonWriter, "endTime", epic.getEndTime());
+    }
+
+    private static void writeTaskFields(JsonWriter jsonWriter, Task task) throws IOException {
+        jsonWriter.name("taskId").value(task.getTaskId());
+        jsonWriter.name("taskName").value(task.getTaskName());
+        jsonWriter.name("taskDescription").value(task.getTaskDescription());
+        jsonWriter.name("status").value(task.getStatus() == null ? null : task.getStatus().name());
+        jsonWriter.name("duration").value(String.valueOf(task.getDuration()));
+        writeDateTime(jsonWriter, "startTime", task.getStartTime());
+    }
+
+    private static void writeDateTime(JsonWriter jsonWriter, String name, LocalDateTime dateTime)
+            throws IOException {
+        jsonWriter.name(name).value(dateTime == null ? null : dateTime.format(Task.FORMATTER));
+    }
+}
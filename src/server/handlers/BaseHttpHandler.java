@@ -1,49 +1,210 @@
 package server.handlers;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
-import server.HttpTaskServer;
+import server.HistorySessions;
 import services.TaskManager;
+import tasks.Task;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public abstract class BaseHttpHandler implements HttpHandler {
+    protected static final int MAX_PAGE_SIZE = 1000;
+    protected static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    protected static final int COMPRESSION_THRESHOLD = 1024;
+    protected static final int MAX_CACHED_BYTES = 8 * 1024 * 1024;
+    protected static final int FIXED_LENGTH_LIMIT = 64 * 1024;
+    protected static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+    private final ResponseCache responseCache = new ResponseCache();
+    private final String etagNonce = Long.toHexString(new SecureRandom().nextLong());
     TaskManager taskManager;
-    Gson gson = HttpTaskServer.getGson();
+    HistorySessions historySessions;
+    Gson gson;
 
-    protected BaseHttpHandler(TaskManager taskManager) {
+    protected BaseHttpHandler(TaskManager taskManager, Gson gson) {
         this.taskManager = taskManager;
+        this.gson = gson;
+    }
+
+    protected BaseHttpHandler(TaskManager taskManager, HistorySessions historySessions, Gson gson) {
+        this.taskManager = taskManager;
+        this.historySessions = historySessions;
+        this.gson = gson;
+    }
+
+    protected Optional<String> getSessionId(HttpExchange exchange) {
+        return Optional.ofNullable(exchange.getRequestHeaders().getFirst(HistorySessions.SESSION_HEADER));
+    }
+
+    protected <T extends Task> T viewTask(HttpExchange exchange, int id, IntFunction<T> lookup,
+                                          IntFunction<T> sessionLookup) {
+        Optional<String> sessionId = getSessionId(exchange);
+        if (sessionId.isEmpty()) {
+            return lookup.apply(id);
+        }
+        T task = sessionLookup.apply(id);
+        historySessions.add(sessionId.get(), task);
+        return task;
     }
 
     protected void sendText(HttpExchange exchange, String response, int rCode) throws IOException {
-        String message = "Запрос успешно обработан!\n" + response;
+        sendMessage(exchange, "Запрос успешно обработан!\n" + response, rCode);
+    }
+
+    private void sendMessage(HttpExchange exchange, String message, int rCode) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+        exchange.sendResponseHeaders(rCode, body.length);
         try (OutputStream os = exchange.getResponseBody()) {
-            exchange.sendResponseHeaders(rCode, 0);
-            os.write(message.getBytes(StandardCharsets.UTF_8));
+            os.write(body);
         }
         exchange.close();
     }
 
-    protected void sendNotFound(HttpExchange exchange, String response, int rCode) throws IOException {
-        String message = "Произошла ошибка!\n" + response;
-        try (OutputStream os = exchange.getResponseBody()) {
-            exchange.sendResponseHeaders(rCode, 0);
-            os.write(message.getBytes(StandardCharsets.UTF_8));
+    protected void sendJson(HttpExchange exchange, Object value, int rCode) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+        writeJson(new ResponseBodyStream(exchange, rCode, acceptsGzip(exchange), COMPRESSION_THRESHOLD,
+                FIXED_LENGTH_LIMIT), value);
+        exchange.close();
+    }
+
+    protected void sendCachedJson(HttpExchange exchange, long version, Supplier<?> value) throws IOException {
+        String key = exchange.getRequestURI().getPath();
+        ResponseCache.Entry entry = responseCache.get(key, version);
+        exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+        if (entry != null) {
+            byte[] body = entry.getBody();
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (body.length > COMPRESSION_THRESHOLD && acceptsGzip(exchange)) {
+                body = entry.getGzippedBody();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+            exchange.close();
+            return;
         }
+        ResponseCache.CapturingStream body = new ResponseCache.CapturingStream(new ResponseBodyStream(exchange, 200,
+                acceptsGzip(exchange), COMPRESSION_THRESHOLD, FIXED_LENGTH_LIMIT), MAX_CACHED_BYTES);
+        writeJson(body, value.get());
         exchange.close();
+        byte[] captured = body.getCaptured();
+        if (captured != null) {
+            responseCache.put(key, version, captured);
+        }
+    }
+
+    private void writeJson(OutputStream body, Object value) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8))) {
+            writer.write("Запрос успешно обработан!\n");
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            gson.toJson(value, value.getClass(), jsonWriter);
+            jsonWriter.flush();
+        }
+    }
+
+    protected boolean sendNotModified(HttpExchange exchange, long version) throws IOException {
+        String etag = "W/\"" + etagNonce + "-" + version + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(etag.substring(2))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected boolean acceptsGzip(HttpExchange exchange) {
+        List<String> acceptEncodings = exchange.getRequestHeaders().get("Accept-Encoding");
+        if (acceptEncodings == null) {
+            return false;
+        }
+        for (String acceptEncoding : acceptEncodings) {
+            for (String encoding : acceptEncoding.split(",")) {
+                String[] parts = encoding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    protected void sendNotFound(HttpExchange exchange, String response, int rCode) throws IOException {
+        sendMessage(exchange, "Произошла ошибка!\n" + response, rCode);
     }
 
     protected void sendInteractions(HttpExchange exchange) throws IOException {
-        String response = "Задача пересекается с существующими по времени выполнения!";
-        try (OutputStream os = exchange.getResponseBody()) {
-            exchange.sendResponseHeaders(406, 0);
-            os.write(response.getBytes(StandardCharsets.UTF_8));
+        sendMessage(exchange, "Задача пересекается с существующими по времени выполнения!", 406);
+    }
+
+    protected boolean isPageRequest(HttpExchange exchange) {
+        Map<String, String> parameters = getQueryParameters(exchange);
+        return parameters.containsKey("cursor") || parameters.containsKey("limit");
+    }
+
+    protected <T extends Task> void sendPage(HttpExchange exchange, BiFunction<Integer, Integer, List<T>> pageLoader)
+            throws IOException {
+        Map<String, String> parameters = getQueryParameters(exchange);
+        int cursor;
+        int limit;
+        try {
+            cursor = Integer.parseInt(parameters.getOrDefault("cursor", "0"));
+            limit = Math.min(Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(MAX_PAGE_SIZE))),
+                    MAX_PAGE_SIZE);
+        } catch (NumberFormatException exception) {
+            sendNotFound(exchange, "Некорректные параметры пагинации", 400);
+            return;
         }
-        exchange.close();
+        if (cursor < 0 || limit <= 0) {
+            sendNotFound(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+        List<T> page = pageLoader.apply(cursor, limit);
+        if (page.size() == limit) {
+            exchange.getResponseHeaders().set(NEXT_CURSOR_HEADER, String.valueOf(page.getLast().getTaskId() + 1));
+        }
+        sendJson(exchange, page, 200);
+    }
+
+    private Map<String, String> getQueryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
     }
 
     protected Optional<Integer> getTaskId(HttpExchange exchange) {
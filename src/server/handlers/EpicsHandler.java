@@ -1,13 +1,16 @@
 package server.handlers;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.sun.net.httpserver.HttpExchange;
+import server.HistorySessions;
 import services.NotFoundException;
 import services.TaskManager;
 import tasks.Epic;
 import tasks.Subtask;
+import tasks.TasksTypes;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -16,8 +19,8 @@ import java.util.List;
 import java.util.Optional;
 
 public class EpicsHandler extends BaseHttpHandler {
-    public EpicsHandler(TaskManager taskManager) {
-        super(taskManager);
+    public EpicsHandler(TaskManager taskManager, HistorySessions historySessions, Gson gson) {
+        super(taskManager, historySessions, gson);
     }
 
     @Override
@@ -46,7 +49,15 @@ public class EpicsHandler extends BaseHttpHandler {
     }
 
     private void handleGetEpics(HttpExchange exchange) throws IOException {
-        sendText(exchange, gson.toJson(taskManager.getEpicsList()), 200);
+        long version = taskManager.getVersion(TasksTypes.EPIC);
+        if (sendNotModified(exchange, version)) {
+            return;
+        }
+        if (isPageRequest(exchange)) {
+            sendPage(exchange, taskManager::getEpicsPage);
+        } else {
+            sendCachedJson(exchange, version, taskManager::getEpicsList);
+        }
     }
 
     private void handleGetEpic(HttpExchange exchange) throws IOException {
@@ -55,10 +66,8 @@ public class EpicsHandler extends BaseHttpHandler {
         int rCode;
         if (id.isPresent()) {
             try {
-                Epic epic = taskManager.getEpic(id.get());
-                response = gson.toJson(epic);
-                rCode = 200;
-                sendText(exchange, response, rCode);
+                Epic epic = viewTask(exchange, id.get(), taskManager::getEpic, taskManager::peekEpic);
+                sendJson(exchange, epic, 200);
             } catch (NotFoundException e) {
                 response = e.getMessage();
                 rCode = 404;
@@ -78,9 +87,7 @@ public class EpicsHandler extends BaseHttpHandler {
         if (idOptional.isPresent()) {
             try {
                 List<Subtask> subtasksOfEpic = taskManager.getEpicSubtasks(idOptional.get());
-                rCode = 200;
-                response = gson.toJson(subtasksOfEpic);
-                sendText(exchange, response, rCode);
+                sendJson(exchange, subtasksOfEpic, 200);
             } catch (NotFoundException e) {
                 response = e.getMessage();
                 rCode = 404;
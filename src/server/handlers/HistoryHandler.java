@@ -1,13 +1,16 @@
 package server.handlers;
 
+import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import server.HistorySessions;
 import services.TaskManager;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class HistoryHandler extends BaseHttpHandler {
-    public HistoryHandler(TaskManager taskManager) {
-        super(taskManager);
+    public HistoryHandler(TaskManager taskManager, HistorySessions historySessions, Gson gson) {
+        super(taskManager, historySessions, gson);
     }
 
     @Override
@@ -23,7 +26,12 @@ public class HistoryHandler extends BaseHttpHandler {
     }
 
     private void handleGetHistory(HttpExchange exchange) throws IOException {
-        sendText(exchange, gson.toJson(taskManager.getHistory()), 200);
+        Optional<String> sessionId = getSessionId(exchange);
+        if (sessionId.isPresent()) {
+            sendJson(exchange, historySessions.getHistory(sessionId.get()), 200);
+        } else {
+            sendJson(exchange, taskManager.getHistory(), 200);
+        }
     }
 
     private Endpoint getEndpoint(HttpExchange exchange) {
@@ -1,13 +1,15 @@
 package server.handlers;
 
+import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import services.TaskManager;
+import tasks.TasksTypes;
 
 import java.io.IOException;
 
 public class PrioritizedHandler extends BaseHttpHandler {
-    public PrioritizedHandler(TaskManager taskManager) {
-        super(taskManager);
+    public PrioritizedHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
     }
 
     @Override
@@ -23,7 +25,11 @@ public class PrioritizedHandler extends BaseHttpHandler {
     }
 
     private void handleGetPrioritizedTasks(HttpExchange exchange) throws IOException {
-        sendText(exchange, gson.toJson(taskManager.getPrioritizedTasks()), 200);
+        long version = Math.max(taskManager.getVersion(TasksTypes.TASK), taskManager.getVersion(TasksTypes.SUBTASK));
+        if (sendNotModified(exchange, version)) {
+            return;
+        }
+        sendCachedJson(exchange, version, taskManager::getPrioritizedTasks);
     }
 
     private Endpoint getEndpoint(HttpExchange exchange) {
@@ -0,0 +1,92 @@
+package server.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+class ResponseBodyStream extends OutputStream {
+    private final HttpExchange exchange;
+    private final int rCode;
+    private final boolean compressionAllowed;
+    private final int compressionThreshold;
+    private final int bufferLimit;
+    private ByteArrayOutputStream buffer;
+    private OutputStream out;
+
+    ResponseBodyStream(HttpExchange exchange, int rCode, boolean compressionAllowed, int compressionThreshold,
+                       int bufferLimit) {
+        this.exchange = exchange;
+        this.rCode = rCode;
+        this.compressionAllowed = compressionAllowed;
+        this.compressionThreshold = compressionThreshold;
+        this.bufferLimit = bufferLimit;
+        buffer = new ByteArrayOutputStream(Math.min(bufferLimit, 8192));
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+    }
+
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (out != null) {
+            out.write(bytes, offset, length);
+            return;
+        }
+        buffer.write(bytes, offset, length);
+        if (buffer.size() > bufferLimit) {
+            startStreaming();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            return;
+        }
+        byte[] body = buffer.toByteArray();
+        buffer = null;
+        if (compressionAllowed && body.length > compressionThreshold) {
+            body = gzip(body);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(rCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private void startStreaming() throws IOException {
+        if (compressionAllowed) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(rCode, 0);
+            out = new GZIPOutputStream(exchange.getResponseBody(), 8192);
+        } else {
+            exchange.sendResponseHeaders(rCode, 0);
+            out = exchange.getResponseBody();
+        }
+        buffer.writeTo(out);
+        buffer = null;
+    }
+}
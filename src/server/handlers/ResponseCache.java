@@ -0,0 +1,76 @@
+package server.handlers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ResponseCache {
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry get(String key, long version) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.version == version ? entry : null;
+    }
+
+    void put(String key, long version, byte[] body) {
+        entries.merge(key, new Entry(version, body),
+                (oldEntry, newEntry) -> oldEntry.version > newEntry.version ? oldEntry : newEntry);
+    }
+
+    static class Entry {
+        private final long version;
+        private final byte[] body;
+        private volatile byte[] gzippedBody;
+
+        private Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        byte[] getGzippedBody() throws IOException {
+            byte[] gzipped = gzippedBody;
+            if (gzipped == null) {
+                gzipped = ResponseBodyStream.gzip(body);
+                gzippedBody = gzipped;
+            }
+            return gzipped;
+        }
+    }
+
+    static class CapturingStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        CapturingStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            if (captured != null) {
+                if (captured.size() + length > limit) {
+                    captured = null;
+                } else {
+                    captured.write(bytes, offset, length);
+                }
+            }
+        }
+
+        byte[] getCaptured() {
+            return captured == null ? null : captured.toByteArray();
+        }
+    }
+}
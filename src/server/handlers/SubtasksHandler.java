@@ -1,10 +1,13 @@
 package server.handlers;
 
+import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import server.HistorySessions;
 import services.ManagerSaveException;
 import services.NotFoundException;
 import services.TaskManager;
 import tasks.Subtask;
+import tasks.TasksTypes;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,8 +15,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 public class SubtasksHandler extends BaseHttpHandler {
-    public SubtasksHandler(TaskManager taskManager) {
-        super(taskManager);
+    public SubtasksHandler(TaskManager taskManager, HistorySessions historySessions, Gson gson) {
+        super(taskManager, historySessions, gson);
     }
 
     @Override
@@ -41,7 +44,15 @@ public class SubtasksHandler extends BaseHttpHandler {
     }
 
     private void handleGetSubtasks(HttpExchange exchange) throws IOException {
-        sendText(exchange, gson.toJson(taskManager.getSubtasksList()), 200);
+        long version = taskManager.getVersion(TasksTypes.SUBTASK);
+        if (sendNotModified(exchange, version)) {
+            return;
+        }
+        if (isPageRequest(exchange)) {
+            sendPage(exchange, taskManager::getSubtasksPage);
+        } else {
+            sendCachedJson(exchange, version, taskManager::getSubtasksList);
+        }
     }
 
     private void handleGetSubtask(HttpExchange exchange) throws IOException {
@@ -50,10 +61,8 @@ public class SubtasksHandler extends BaseHttpHandler {
         int rCode;
         if (id.isPresent()) {
             try {
-                Subtask subtask = taskManager.getSubTask(id.get());
-                response = gson.toJson(subtask);
-                rCode = 200;
-                sendText(exchange, response, rCode);
+                Subtask subtask = viewTask(exchange, id.get(), taskManager::getSubTask, taskManager::peekSubtask);
+                sendJson(exchange, subtask, 200);
             } catch (NotFoundException e) {
                 response = e.getMessage();
                 rCode = 404;
@@ -1,10 +1,13 @@
 package server.handlers;
 
+import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import server.HistorySessions;
 import services.ManagerSaveException;
 import services.NotFoundException;
 import services.TaskManager;
 import tasks.Task;
+import tasks.TasksTypes;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,8 +15,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 public class TasksHandler extends BaseHttpHandler {
-    public TasksHandler(TaskManager taskManager) {
-        super(taskManager);
+    public TasksHandler(TaskManager taskManager, HistorySessions historySessions, Gson gson) {
+        super(taskManager, historySessions, gson);
     }
 
     @Override
@@ -41,7 +44,15 @@ public class TasksHandler extends BaseHttpHandler {
     }
 
     private void handleGetTasks(HttpExchange exchange) throws IOException {
-        sendText(exchange, gson.toJson(taskManager.getTasksList()), 200);
+        long version = taskManager.getVersion(TasksTypes.TASK);
+        if (sendNotModified(exchange, version)) {
+            return;
+        }
+        if (isPageRequest(exchange)) {
+            sendPage(exchange, taskManager::getTasksPage);
+        } else {
+            sendCachedJson(exchange, version, taskManager::getTasksList);
+        }
     }
 
     private void handleGetTask(HttpExchange exchange) throws IOException {
@@ -50,10 +61,8 @@ public class TasksHandler extends BaseHttpHandler {
         int rCode;
         if (id.isPresent()) {
             try {
-                Task task = taskManager.getTask(id.get());
-                response = gson.toJson(task);
-                rCode = 200;
-                sendText(exchange, response, rCode);
+                Task task = viewTask(exchange, id.get(), taskManager::getTask, taskManager::peekTask);
+                sendJson(exchange, task, 200);
             } catch (NotFoundException e) {
                 response = e.getMessage();
                 rCode = 404;
@@ -0,0 +1,126 @@
+package services;
+
+import tasks.Task;
+import util.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ArrayHistoryManager implements HistoryManager {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+    private final int capacity;
+    private final IntIntHashMap slotsById = new IntIntHashMap(NONE);
+    private Task[] tasks;
+    private int[] before;
+    private int[] after;
+    private int head = NONE;
+    private int tail = NONE;
+    private int freeSlot = NONE;
+    private int usedSlots;
+    private List<Task> historyView;
+
+    public ArrayHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ArrayHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        this.capacity = capacity;
+        int initialCapacity = Math.min(capacity, DEFAULT_CAPACITY);
+        tasks = new Task[initialCapacity];
+        before = new int[initialCapacity];
+        after = new int[initialCapacity];
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        if (historyView == null) {
+            List<Task> searchHistoryList = new ArrayList<>(slotsById.size());
+            for (int slot = head; slot != NONE; slot = after[slot]) {
+                searchHistoryList.add(tasks[slot]);
+            }
+            historyView = Collections.unmodifiableList(searchHistoryList);
+        }
+        return historyView;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        int id = task.getTaskId();
+        int slot = slotsById.get(id);
+        if (slot != NONE) {
+            unlink(slot);
+        } else {
+            if (slotsById.size() == capacity) {
+                slot = head;
+                unlink(slot);
+                slotsById.remove(tasks[slot].getTaskId());
+            } else {
+                slot = allocateSlot();
+            }
+            slotsById.put(id, slot);
+        }
+        tasks[slot] = task;
+        linkLast(slot);
+        historyView = null;
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        int slot = slotsById.remove(id);
+        if (slot != NONE) {
+            unlink(slot);
+            historyView = null;
+            tasks[slot] = null;
+            after[slot] = freeSlot;
+            freeSlot = slot;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeSlot != NONE) {
+            int slot = freeSlot;
+            freeSlot = after[slot];
+            return slot;
+        }
+        if (usedSlots == tasks.length) {
+            int newLength = (int) Math.min(capacity, (long) tasks.length << 1);
+            tasks = Arrays.copyOf(tasks, newLength);
+            before = Arrays.copyOf(before, newLength);
+            after = Arrays.copyOf(after, newLength);
+        }
+        return usedSlots++;
+    }
+
+    private void linkLast(int slot) {
+        before[slot] = tail;
+        after[slot] = NONE;
+        if (tail == NONE) {
+            head = slot;
+        } else {
+            after[tail] = slot;
+        }
+        tail = slot;
+    }
+
+    private void unlink(int slot) {
+        if (before[slot] == NONE) {
+            head = after[slot];
+        } else {
+            after[before[slot]] = after[slot];
+        }
+        if (after[slot] == NONE) {
+            tail = before[slot];
+        } else {
+            before[after[slot]] = before[slot];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package services;
+
+import tasks.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class BinarySnapshot {
+    private static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    private static final int VERSION = 1;
+    private static final TasksTypes[] TYPES = TasksTypes.values();
+    private static final TaskStatuses[] STATUSES = TaskStatuses.values();
+
+    private BinarySnapshot() {
+
+    }
+
+    public static boolean isBinary(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void write(DataOutputStream output, Collection<? extends Task> taskList,
+                             Collection<? extends Task> epicList, Collection<? extends Task> subtaskList)
+            throws IOException {
+        output.write(MAGIC);
+        output.writeByte(VERSION);
+        for (Collection<? extends Task> records : List.of(taskList, epicList, subtaskList)) {
+            for (Task task : records) {
+                writeRecord(output, task);
+            }
+        }
+    }
+
+    private static void writeRecord(DataOutputStream output, Task task) throws IOException {
+        output.writeByte(task.getType().ordinal());
+        writeVarLong(output, task.getTaskId());
+        writeString(output, task.getTaskName());
+        output.writeByte(task.getStatus().ordinal());
+        writeString(output, task.getTaskDescription());
+        if (task instanceof Subtask subtask) {
+            writeVarLong(output, subtask.getIdOfEpic());
+        }
+        writeVarLong(output, task.getDuration().toMinutes());
+        if (task instanceof Epic) {
+            output.writeBoolean(task.getStartTime() != null);
+            if (task.getStartTime() != null) {
+                writeVarLong(output, zigZag(toEpochMinutes(task.getStartTime())));
+                writeVarLong(output, zigZag(toEpochMinutes(task.getEndTime())));
+            }
+        } else {
+            writeVarLong(output, zigZag(toEpochMinutes(task.getStartTime())));
+        }
+    }
+
+    public static void read(ByteBuffer buffer, Consumer<Task> consumer) {
+        if (!isBinary(buffer)) {
+            throw new ManagerLoadException("Неизвестный формат файла");
+        }
+        buffer.position(buffer.position() + MAGIC.length);
+        if (buffer.get() != VERSION) {
+            throw new ManagerLoadException("Неподдерживаемая версия файла");
+        }
+        byte[] scratch = new byte[256];
+        try {
+            while (buffer.hasRemaining()) {
+                TasksTypes type = TYPES[buffer.get()];
+                int id = (int) readVarLong(buffer);
+                String name = readString(buffer, scratch);
+                TaskStatuses status = STATUSES[buffer.get()];
+                String description = readString(buffer, scratch);
+                switch (type) {
+                    case TASK:
+                        consumer.accept(new Task(id, name, description, status,
+                                Duration.ofMinutes(readVarLong(buffer)), readDateTime(buffer)));
+                        break;
+                    case EPIC:
+                        Epic epic = new Epic(id, name, description);
+                        epic.setStatus(status);
+                        epic.setDuration(Duration.ofMinutes(readVarLong(buffer)));
+                        if (buffer.get() != 0) {
+                            epic.setStartTime(readDateTime(buffer));
+                            epic.setEndTime(readDateTime(buffer));
+                        }
+                        consumer.accept(epic);
+                        break;
+                    case SUBTASK:
+                        int idOfEpic = (int) readVarLong(buffer);
+                        consumer.accept(new Subtask(idOfEpic, id, name, description, status,
+                                Duration.ofMinutes(readVarLong(buffer)), readDateTime(buffer)));
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException exception) {
+            throw new ManagerLoadException("Файл поврежден");
+        }
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long minutes = unZigZag(readVarLong(buffer));
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = (int) readVarLong(buffer);
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
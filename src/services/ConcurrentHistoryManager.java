@@ -0,0 +1,105 @@
+package services;
+
+import tasks.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentHistoryManager implements HistoryManager {
+    private static final int DRAIN_THRESHOLD = 1024;
+    private final HistoryManager historyManager;
+    private final Stripe[] stripes;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ConcurrentHistoryManager(HistoryManager historyManager) {
+        this(historyManager, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ConcurrentHistoryManager(HistoryManager historyManager, int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Количество буферов должно быть больше нуля");
+        }
+        this.historyManager = historyManager;
+        this.stripes = new Stripe[Integer.highestOneBit(stripeCount * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        drainLock.lock();
+        try {
+            drain();
+            return historyManager.getHistory();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        Stripe stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+        int pending;
+        synchronized (stripe) {
+            stripe.views.add(new View(task, sequence.incrementAndGet()));
+            pending = stripe.views.size();
+        }
+        if (pending >= DRAIN_THRESHOLD && drainLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        drainLock.lock();
+        try {
+            drain();
+            historyManager.remove(id);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drain() {
+        long frontier = sequence.get();
+        List<View> views = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                while (!stripe.views.isEmpty() && stripe.views.peek().sequence <= frontier) {
+                    views.add(stripe.views.poll());
+                }
+            }
+        }
+        views.sort(Comparator.comparingLong(view -> view.sequence));
+        for (View view : views) {
+            historyManager.add(view.task);
+        }
+    }
+
+    private static class Stripe {
+        private final ArrayDeque<View> views = new ArrayDeque<>();
+    }
+
+    private static class View {
+        private final Task task;
+        private final long sequence;
+
+        private View(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package services;
+
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+import tasks.TasksTypes;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+public class ConcurrentTaskManager implements TaskManager {
+    private final TaskManager taskManager;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private final DeferredDurability durability;
+
+    public ConcurrentTaskManager(TaskManager taskManager) {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.taskManager = taskManager;
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.durability = taskManager instanceof DeferredDurability deferredDurability ? deferredDurability : null;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        T result;
+        writeLock.lock();
+        try {
+            result = durability == null ? action.get() : durability.deferDurability(action);
+        } finally {
+            writeLock.unlock();
+        }
+        if (durability != null) {
+            durability.awaitDurability();
+        }
+        return result;
+    }
+
+    private void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public List<Task> getTasksList() {
+        return read(taskManager::getTasksList);
+    }
+
+    @Override
+    public List<Epic> getEpicsList() {
+        return read(taskManager::getEpicsList);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksList() {
+        return read(taskManager::getSubtasksList);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int cursor, int limit) {
+        return read(() -> taskManager.getTasksPage(cursor, limit));
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int cursor, int limit) {
+        return read(() -> taskManager.getEpicsPage(cursor, limit));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int cursor, int limit) {
+        return read(() -> taskManager.getSubtasksPage(cursor, limit));
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return read(() -> taskManager.getEpicSubtasks(epicId));
+    }
+
+    @Override
+    public Task getTask(int id) {
+        return read(() -> taskManager.getTask(id));
+    }
+
+    @Override
+    public Subtask getSubTask(int id) {
+        return read(() -> taskManager.getSubTask(id));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return read(() -> taskManager.getEpic(id));
+    }
+
+    @Override
+    public Task peekTask(int id) {
+        return read(() -> taskManager.peekTask(id));
+    }
+
+    @Override
+    public Subtask peekSubtask(int id) {
+        return read(() -> taskManager.peekSubtask(id));
+    }
+
+    @Override
+    public Epic peekEpic(int id) {
+        return read(() -> taskManager.peekEpic(id));
+    }
+
+    @Override
+    public int addNewTask(Task task) {
+        return write(() -> taskManager.addNewTask(task));
+    }
+
+    @Override
+    public int addNewEpic(Epic epic) {
+        return write(() -> taskManager.addNewEpic(epic));
+    }
+
+    @Override
+    public int addNewSubtask(Subtask subtask) {
+        return write(() -> taskManager.addNewSubtask(subtask));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        write(() -> taskManager.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> taskManager.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        write(() -> taskManager.updateSubtask(subtask));
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        write(() -> taskManager.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        write(() -> taskManager.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteSubtask(Integer id) {
+        write(() -> taskManager.deleteSubtask(id));
+    }
+
+    @Override
+    public void deleteTasks() {
+        write(taskManager::deleteTasks);
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        write(taskManager::deleteSubtasks);
+    }
+
+    @Override
+    public void deleteEpics() {
+        write(taskManager::deleteEpics);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(taskManager::getHistory);
+    }
+
+    @Override
+    public void addRemovalListener(IntConsumer listener) {
+        write(() -> taskManager.addRemovalListener(listener));
+    }
+
+    @Override
+    public void removeRemovalListener(IntConsumer listener) {
+        write(() -> taskManager.removeRemovalListener(listener));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(taskManager::getPrioritizedTasks);
+    }
+
+    @Override
+    public long getVersion() {
+        return read(taskManager::getVersion);
+    }
+
+    @Override
+    public long getVersion(TasksTypes type) {
+        return read(() -> taskManager.getVersion(type));
+    }
+}
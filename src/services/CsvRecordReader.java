@@ -0,0 +1,187 @@
+package services;
+
+import tasks.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class CsvRecordReader {
+    private final ByteBuffer buffer;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private int fieldCount;
+    private byte[] scratch = new byte[256];
+
+    public CsvRecordReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean next() {
+        int limit = buffer.limit();
+        while (buffer.position() < limit) {
+            fieldCount = 0;
+            int position = buffer.position();
+            int fieldStart = position;
+            int closingQuote = -1;
+            boolean inQuotes = false;
+            while (true) {
+                if (position == limit) {
+                    if (inQuotes) {
+                        buffer.position(limit);
+                        return false;
+                    }
+                    addField(fieldStart, position, closingQuote);
+                    break;
+                }
+                byte current = buffer.get(position);
+                if (inQuotes) {
+                    if (current == '"') {
+                        if (position + 1 < limit && buffer.get(position + 1) == '"') {
+                            position++;
+                        } else {
+                            inQuotes = false;
+                            closingQuote = position;
+                        }
+                    }
+                } else if (current == '"' && position == fieldStart) {
+                    inQuotes = true;
+                } else if (current == ',') {
+                    addField(fieldStart, position, closingQuote);
+                    fieldStart = position + 1;
+                    closingQuote = -1;
+                } else if (current == '\n') {
+                    int fieldEnd = position;
+                    if (fieldEnd > fieldStart && buffer.get(fieldEnd - 1) == '\r') {
+                        fieldEnd--;
+                    }
+                    addField(fieldStart, fieldEnd, closingQuote);
+                    position++;
+                    break;
+                }
+                position++;
+            }
+            buffer.position(position);
+            if (fieldCount > 1 || quoted[0] || fieldEnds[0] > fieldStarts[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addField(int start, int end, int closingQuote) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            quoted = Arrays.copyOf(quoted, fieldCount * 2);
+        }
+        quoted[fieldCount] = closingQuote >= 0;
+        fieldStarts[fieldCount] = quoted[fieldCount] ? start + 1 : start;
+        fieldEnds[fieldCount] = quoted[fieldCount] ? closingQuote : end;
+        fieldCount++;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public String getString(int field) {
+        int start = fieldStart(field);
+        int length = fieldEnds[field] - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        if (!quoted[field]) {
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        int unescapedLength = 0;
+        for (int i = start; i < start + length; i++) {
+            byte current = buffer.get(i);
+            scratch[unescapedLength++] = current;
+            if (current == '"') {
+                i++;
+            }
+        }
+        return new String(scratch, 0, unescapedLength, StandardCharsets.UTF_8);
+    }
+
+    public long getLong(int field) {
+        int start = fieldStart(field);
+        int end = fieldEnds[field];
+        boolean negative = start < end && buffer.get(start) == '-';
+        int position = negative ? start + 1 : start;
+        if (position == end) {
+            throw new NumberFormatException("Пустое числовое поле");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            value = value * 10 + digit(position);
+        }
+        return negative ? -value : value;
+    }
+
+    public int getInt(int field) {
+        return Math.toIntExact(getLong(field));
+    }
+
+    public <E extends Enum<E>> E getEnum(int field, E[] values) {
+        int start = fieldStart(field);
+        int length = fieldEnds[field] - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && matches(start, name)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение: " + getString(field));
+    }
+
+    public LocalDateTime getDateTime(int field) {
+        int start = fieldStart(field);
+        if (fieldEnds[field] - start != 16 || buffer.get(start + 2) != '-' || buffer.get(start + 5) != '-'
+                || buffer.get(start + 10) != ' ' || buffer.get(start + 13) != ':') {
+            return LocalDateTime.parse(getString(field), Task.FORMATTER);
+        }
+        int day = number(start, 2);
+        int month = number(start + 3, 2);
+        int year = number(start + 6, 4);
+        int hour = number(start + 11, 2);
+        int minute = number(start + 14, 2);
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    private int fieldStart(int field) {
+        if (field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Нет поля с номером " + field);
+        }
+        return fieldStarts[field];
+    }
+
+    private boolean matches(int start, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buffer.get(start + i) != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int number(int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value * 10 + digit(i);
+        }
+        return value;
+    }
+
+    private int digit(int position) {
+        int digit = buffer.get(position) - '0';
+        if (digit < 0 || digit > 9) {
+            throw new NumberFormatException("Некорректное число в файле");
+        }
+        return digit;
+    }
+}
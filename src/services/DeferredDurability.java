@@ -0,0 +1,9 @@
+package services;
+
+import java.util.function.Supplier;
+
+public interface DeferredDurability {
+    <T> T deferDurability(Supplier<T> mutation);
+
+    void awaitDurability();
+}
@@ -2,196 +2,704 @@ package services;
 
 import tasks.*;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends InMemoryTaskManager implements DeferredDurability, AutoCloseable {
+    private static final TasksTypes[] TYPES = TasksTypes.values();
+    private static final TaskStatuses[] STATUSES = TaskStatuses.values();
+    private static final JournalOperations[] OPERATIONS = JournalOperations.values();
+    private static final int PARALLEL_RESTORE_THRESHOLD = 1 << 20;
     private final Path path;
+    private final Path journalPath;
+    private final Path compactedJournalPath;
+    private final StorageMode storageMode;
+    private final FileFormat fileFormat;
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionRequested = new AtomicBoolean();
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final ThreadLocal<DeferredCommit> deferredCommit = ThreadLocal.withInitial(DeferredCommit::new);
+    private JournalWriter journalWriter;
+    private long journalSequence;
+    private boolean journalPrepared;
+    private volatile int journalRecords;
+    private int maxJournalRecords;
+    private ScheduledExecutorService compactionExecutor;
+    private volatile ManagerSaveException compactionFailure;
 
     public FileBackedTaskManager(File file) {
-        this.path = file.toPath();
+        this(file, StorageMode.SNAPSHOT);
+    }
+
+    public FileBackedTaskManager(File file, StorageMode storageMode) {
+        this(file, storageMode, FsyncPolicy.OS, 0);
+    }
+
+    public FileBackedTaskManager(File file, StorageMode storageMode, FsyncPolicy fsyncPolicy,
+                                 long fsyncIntervalMillis) {
+        this(file, FileFormat.CSV, storageMode, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    public FileBackedTaskManager(File file, FileFormat fileFormat) {
+        this(file, fileFormat, StorageMode.SNAPSHOT, FsyncPolicy.OS, 0);
+    }
+
+    public FileBackedTaskManager(File file, FileFormat fileFormat, StorageMode storageMode, FsyncPolicy fsyncPolicy,
+                                 long fsyncIntervalMillis) {
+        this(file.toPath(), fileFormat, storageMode, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    private FileBackedTaskManager(Path path, FileFormat fileFormat, StorageMode storageMode,
+                                  FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.path = path;
+        this.fileFormat = fileFormat;
+        this.journalPath = path.resolveSibling(path.getFileName() + ".journal");
+        this.compactedJournalPath = path.resolveSibling(path.getFileName() + ".journal.compacting");
+        this.storageMode = storageMode;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager taskManager = new FileBackedTaskManager(file);
+        return loadFromFile(file, StorageMode.SNAPSHOT);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, StorageMode storageMode) {
+        return loadFromFile(file, storageMode, FsyncPolicy.OS, 0);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, StorageMode storageMode, FsyncPolicy fsyncPolicy,
+                                                     long fsyncIntervalMillis) {
         try {
-            List<String> tasksFromFile = Files.readAllLines(file.toPath());
-            tasksFromFile.stream().skip(1)
-                    .forEach(string -> {
-                        String[] infAboutTask = string.split(",");
-                        taskManager.restoreCount(infAboutTask[0]);
-                        switch (TasksTypes.valueOf(infAboutTask[1])) {
-                            case TASK:
-                                taskManager.restoreTask(infAboutTask);
-                                break;
-                            case EPIC:
-                                taskManager.restoreEpic(infAboutTask);
-                                break;
-                            case SUBTASK:
-                                taskManager.restoreSubtask(infAboutTask);
-                        }
-                    });
+            ByteBuffer snapshot = map(file.toPath());
+            FileFormat fileFormat = BinarySnapshot.isBinary(snapshot) ? FileFormat.BINARY : FileFormat.CSV;
+            FileBackedTaskManager taskManager = new FileBackedTaskManager(file.toPath(), fileFormat, storageMode,
+                    fsyncPolicy, fsyncIntervalMillis);
+            taskManager.journalPrepared = true;
+            taskManager.restoreSnapshot(snapshot);
+            boolean journalReplayed = taskManager.replayJournal(taskManager.compactedJournalPath);
+            journalReplayed |= taskManager.replayJournal(taskManager.journalPath);
+            if (journalReplayed && storageMode == StorageMode.SNAPSHOT) {
+                taskManager.save();
+                Files.deleteIfExists(taskManager.compactedJournalPath);
+                Files.deleteIfExists(taskManager.journalPath);
+            }
+            return taskManager;
         } catch (IOException exception) {
             throw new ManagerLoadException("Ошибка загрузки из файла");
         }
-        return taskManager;
     }
 
-    private void restoreCount(String str) {
-        int number = Integer.parseInt(str);
+    private void restoreSnapshot(ByteBuffer snapshot) {
+        if (BinarySnapshot.isBinary(snapshot)) {
+            BinarySnapshot.read(snapshot, this::restore);
+            return;
+        }
+        CsvRecordReader reader = new CsvRecordReader(snapshot);
+        reader.next();
+        if (snapshot.remaining() >= PARALLEL_RESTORE_THRESHOLD) {
+            restoreInParallel(snapshot.slice());
+        } else {
+            while (reader.next()) {
+                restore(parseRecord(reader, 0));
+            }
+        }
+    }
+
+    private boolean replayJournal(Path journal) throws IOException {
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        CsvRecordReader reader = new CsvRecordReader(completeLines(map(journal)));
+        while (reader.next()) {
+            replayJournalRecord(reader);
+        }
+        return true;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ManagerLoadException("Файл слишком большой для загрузки");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static ByteBuffer completeLines(ByteBuffer buffer) {
+        int end = buffer.limit();
+        while (end > 0 && buffer.get(end - 1) != '\n') {
+            end--;
+        }
+        return buffer.limit(end);
+    }
+
+    public static void convert(File source, File target, FileFormat targetFormat) {
+        FileBackedTaskManager taskManager = loadFromFile(source, StorageMode.JOURNAL);
+        new FileBackedTaskManager(target, targetFormat).writeSnapshot(target.toPath(), taskManager.tasks.values(),
+                taskManager.epics.values(), taskManager.subtasks.values());
+    }
+
+    private void restoreInParallel(ByteBuffer records) {
+        splitIntoChunks(records, ForkJoinPool.getCommonPoolParallelism() * 4).parallelStream()
+                .map(this::parseChunk)
+                .toList()
+                .forEach(chunk -> chunk.forEach(this::restore));
+    }
+
+    private static List<ByteBuffer> splitIntoChunks(ByteBuffer records, int chunkCount) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int limit = records.limit();
+        int chunkSize = Math.max(1, limit / chunkCount);
+        int start = 0;
+        boolean inQuotes = false;
+        for (int position = 0; position < limit; position++) {
+            byte current = records.get(position);
+            if (current == '"') {
+                inQuotes = !inQuotes;
+            } else if (current == '\n' && !inQuotes && position + 1 - start >= chunkSize) {
+                chunks.add(records.slice(start, position + 1 - start));
+                start = position + 1;
+            }
+        }
+        if (start < limit) {
+            chunks.add(records.slice(start, limit - start));
+        }
+        return chunks;
+    }
+
+    private List<Task> parseChunk(ByteBuffer chunk) {
+        List<Task> parsedTasks = new ArrayList<>();
+        CsvRecordReader reader = new CsvRecordReader(chunk);
+        while (reader.next()) {
+            parsedTasks.add(parseRecord(reader, 0));
+        }
+        return parsedTasks;
+    }
+
+    private Task parseRecord(CsvRecordReader record, int base) {
+        switch (record.getEnum(base + 1, TYPES)) {
+            case EPIC:
+                return parseEpic(record, base);
+            case SUBTASK:
+                return parseSubtask(record, base);
+            default:
+                return parseTask(record, base);
+        }
+    }
+
+    private void restore(Task task) {
+        restoreCount(task.getTaskId());
+        modified(TYPES);
+        switch (task.getType()) {
+            case TASK:
+                restoreTask(task);
+                break;
+            case EPIC:
+                restoreEpic((Epic) task);
+                break;
+            case SUBTASK:
+                restoreSubtask((Subtask) task);
+        }
+    }
+
+    private void replayJournalRecord(CsvRecordReader journalRecord) {
+        switch (journalRecord.getEnum(0, OPERATIONS)) {
+            case PUT:
+                restore(parseRecord(journalRecord, 1));
+                break;
+            case DELETE:
+                replayDelete(journalRecord.getInt(1));
+                break;
+            case CLEAR:
+                switch (journalRecord.getEnum(1, TYPES)) {
+                    case TASK:
+                        super.deleteTasks();
+                        break;
+                    case EPIC:
+                        super.deleteEpics();
+                        break;
+                    case SUBTASK:
+                        super.deleteSubtasks();
+                }
+        }
+    }
+
+    private void replayDelete(int id) {
+        if (tasks.containsKey(id)) {
+            super.deleteTask(id);
+        } else if (epics.containsKey(id)) {
+            super.deleteEpic(id);
+        } else if (subtasks.containsKey(id)) {
+            super.deleteSubtask(id);
+        }
+    }
+
+    private void restoreCount(int number) {
         if (number >= count) {
             count = number + 1;
         }
     }
 
-    private void restoreTask(String[] infAboutTask) {
-        Task task = new Task(Integer.parseInt(infAboutTask[0]), infAboutTask[2], infAboutTask[4],
-                TaskStatuses.valueOf(infAboutTask[3]), Duration.ofMinutes(Long.parseLong(infAboutTask[5])),
-                LocalDateTime.parse(infAboutTask[6], Task.FORMATTER));
-        tasks.put(task.getTaskId(), task);
+    private Task parseTask(CsvRecordReader record, int base) {
+        return new Task(record.getInt(base), record.getString(base + 2), record.getString(base + 4),
+                record.getEnum(base + 3, STATUSES), Duration.ofMinutes(record.getLong(base + 5)),
+                record.getDateTime(base + 6));
+    }
+
+    private Epic parseEpic(CsvRecordReader record, int base) {
+        Epic epic = new Epic(record.getInt(base), record.getString(base + 2), record.getString(base + 4));
+        epic.setStatus(record.getEnum(base + 3, STATUSES));
+        epic.setDuration(Duration.ofMinutes(record.getLong(base + 5)));
+        if (record.fieldCount() - base == 8) {
+            epic.setStartTime(record.getDateTime(base + 6));
+            epic.setEndTime(record.getDateTime(base + 7));
+        }
+        return epic;
+    }
+
+    private Subtask parseSubtask(CsvRecordReader record, int base) {
+        return new Subtask(record.getInt(base + 5), record.getInt(base), record.getString(base + 2),
+                record.getString(base + 4), record.getEnum(base + 3, STATUSES),
+                Duration.ofMinutes(record.getLong(base + 6)), record.getDateTime(base + 7));
+    }
+
+    private void restoreTask(Task task) {
+        Task oldTask = tasks.put(task.getTaskId(), task);
+        taskIdIndex.set(task.getTaskId());
+        if (oldTask != null) {
+            prioritizedTaskList.remove(oldTask);
+        }
         prioritizedTaskList.add(task);
     }
 
-    private void restoreEpic(String[] infAboutTask) {
-        Epic epic = new Epic(Integer.parseInt(infAboutTask[0]), infAboutTask[2], infAboutTask[4]);
-        epic.setStatus(TaskStatuses.valueOf(infAboutTask[3]));
-        epic.setDuration(Duration.ofMinutes(Long.parseLong(infAboutTask[5])));
-        if (infAboutTask.length == 8) {
-            epic.setStartTime(LocalDateTime.parse(infAboutTask[6], Task.FORMATTER));
-            epic.setEndTime(LocalDateTime.parse(infAboutTask[7], Task.FORMATTER));
+    private void restoreEpic(Epic epic) {
+        Epic oldEpic = epics.get(epic.getTaskId());
+        if (oldEpic != null) {
+            oldEpic.setTaskName(epic.getTaskName());
+            oldEpic.setTaskDescription(epic.getTaskDescription());
+        } else {
+            epics.put(epic.getTaskId(), epic);
+            epicIdIndex.set(epic.getTaskId());
         }
-        epics.put(epic.getTaskId(), epic);
     }
 
-    private void restoreSubtask(String[] infAboutTask) {
-        Subtask subtask = new Subtask(Integer.parseInt(infAboutTask[5]), Integer.parseInt(infAboutTask[0]),
-                infAboutTask[2], infAboutTask[4], TaskStatuses.valueOf(infAboutTask[3]),
-                Duration.ofMinutes(Long.parseLong(infAboutTask[6])), LocalDateTime.parse(infAboutTask[7],
-                Task.FORMATTER));
-        subtasks.put(subtask.getTaskId(), subtask);
-        prioritizedTaskList.add(subtask);
+    private void restoreSubtask(Subtask subtask) {
         Epic epic = epics.get(subtask.getIdOfEpic());
-        epic.saveSubtaskId(subtask.getTaskId());
+        if (epic == null) {
+            return;
+        }
+        Subtask oldSubtask = subtasks.put(subtask.getTaskId(), subtask);
+        subtaskIdIndex.set(subtask.getTaskId());
+        if (oldSubtask == null) {
+            epic.addSubtask(subtask);
+        } else {
+            prioritizedTaskList.remove(oldSubtask);
+            if (oldSubtask.getIdOfEpic() == subtask.getIdOfEpic()) {
+                epic.replaceSubtask(oldSubtask, subtask);
+            } else {
+                epics.get(oldSubtask.getIdOfEpic()).removeSubtask(oldSubtask);
+                epic.addSubtask(subtask);
+            }
+        }
+        prioritizedTaskList.add(subtask);
     }
 
     public void save() {
-        try (FileWriter writer = new FileWriter(String.valueOf(path), StandardCharsets.UTF_8)) {
-            writer.write("id,type,name,status,description,epic,duration,startTime,endTime\n");
-            getTasksList().stream()
-                    .map(Task::toStringFile)
-                    .forEach(record -> {
-                        try {
-                            writer.write(record + "\n");
-                        } catch (IOException e) {
-                            throw new ManagerSaveException("Ошибка сохранения в файл");
-                        }
-                    });
-            getEpicsList().stream()
-                    .map(Epic::toStringFile)
-                    .forEach(record -> {
-                        try {
-                            writer.write(record + "\n");
-                        } catch (IOException e) {
-                            throw new ManagerSaveException("Ошибка сохранения в файл");
-                        }
-                    });
-            getSubtasksList().stream()
-                    .map(Subtask::toStringFile)
-                    .forEach(record -> {
-                        try {
-                            writer.write(record + "\n");
-                        } catch (IOException e) {
-                            throw new ManagerSaveException("Ошибка сохранения в файл");
-                        }
-                    });
+        if (storageMode == StorageMode.JOURNAL) {
+            compact();
+            return;
+        }
+        synchronized (this) {
+            writeSnapshot(path, tasks.values(), epics.values(), subtasks.values());
+        }
+    }
+
+    public void compact() {
+        synchronized (compactionLock) {
+            synchronized (this) {
+                prepareJournal();
+                rotateJournal();
+            }
+            try {
+                FileBackedTaskManager base = new FileBackedTaskManager(path, fileFormat, StorageMode.SNAPSHOT,
+                        fsyncPolicy, fsyncIntervalMillis);
+                if (Files.exists(path)) {
+                    base.restoreSnapshot(map(path));
+                }
+                base.replayJournal(compactedJournalPath);
+                replaceSnapshot(base.tasks.values(), base.epics.values(), base.subtasks.values());
+                Files.deleteIfExists(compactedJournalPath);
+            } catch (IOException | ManagerLoadException exception) {
+                throw new ManagerSaveException("Ошибка сохранения в файл");
+            }
+        }
+    }
+
+    public ManagerSaveException getCompactionFailure() {
+        return compactionFailure;
+    }
+
+    public synchronized void startCompaction(long intervalMillis, int maxJournalRecords) {
+        if (storageMode != StorageMode.JOURNAL) {
+            throw new IllegalStateException("Компактификация доступна только в режиме журнала");
+        }
+        if (compactionExecutor != null) {
+            return;
+        }
+        this.maxJournalRecords = maxJournalRecords;
+        compactionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactionExecutor.scheduleWithFixedDelay(() -> {
+            if (journalRecords > 0) {
+                runCompaction();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runCompaction() {
+        compactionRequested.set(false);
+        try {
+            compact();
+            compactionFailure = null;
+        } catch (ManagerSaveException exception) {
+            compactionFailure = exception;
+        }
+    }
+
+    private void rotateJournal() {
+        try {
+            closeJournal();
+            journalRecords = 0;
+            if (!Files.exists(journalPath)) {
+                return;
+            }
+            if (Files.exists(compactedJournalPath)) {
+                try (FileChannel channel = FileChannel.open(compactedJournalPath, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+                    while (records.hasRemaining()) {
+                        channel.write(records);
+                    }
+                    if (fsyncPolicy != FsyncPolicy.OS) {
+                        channel.force(false);
+                    }
+                }
+                Files.delete(journalPath);
+            } else {
+                Files.move(journalPath, compactedJournalPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+            syncDirectory();
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Ошибка записи в журнал");
+        }
+    }
+
+    private void prepareJournal() {
+        if (storageMode != StorageMode.JOURNAL || journalPrepared) {
+            return;
+        }
+        try {
+            replaceSnapshot(tasks.values(), epics.values(), subtasks.values());
+            Files.deleteIfExists(compactedJournalPath);
+            Files.deleteIfExists(journalPath);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Ошибка записи в журнал");
+        }
+        journalPrepared = true;
+    }
+
+    private void replaceSnapshot(Collection<Task> taskList, Collection<Epic> epicList,
+                                 Collection<Subtask> subtaskList) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        writeSnapshot(tempPath, taskList, epicList, subtaskList);
+        Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    private void syncDirectory() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.OS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void writeSnapshot(Path target, Collection<Task> taskList, Collection<Epic> epicList,
+                               Collection<Subtask> subtaskList) {
+        try (FileOutputStream stream = new FileOutputStream(target.toFile())) {
+            if (fileFormat == FileFormat.BINARY) {
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+                BinarySnapshot.write(output, taskList, epicList, subtaskList);
+                output.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                writer.write("id,type,name,status,description,epic,duration,startTime,endTime\n");
+                writeRecords(writer, taskList);
+                writeRecords(writer, epicList);
+                writeRecords(writer, subtaskList);
+                writer.flush();
+            }
+            if (fsyncPolicy != FsyncPolicy.OS) {
+                stream.getFD().sync();
+            }
         } catch (IOException exception) {
             throw new ManagerSaveException("Ошибка сохранения в файл");
         }
     }
 
+    private void writeRecords(Writer writer, Collection<? extends Task> taskList) throws IOException {
+        for (Task task : taskList) {
+            writer.write(task.toStringFile() + "\n");
+        }
+    }
+
+    private void closeJournal() {
+        if (journalWriter != null) {
+            journalWriter.close();
+            journalWriter = null;
+        }
+    }
+
+    private void persist(String... journalRecords) {
+        if (storageMode == StorageMode.SNAPSHOT) {
+            save();
+            return;
+        }
+        if (journalWriter == null) {
+            journalWriter = new JournalWriter(journalPath, fsyncPolicy, fsyncIntervalMillis);
+        }
+        journalSequence = journalWriter.append(journalRecords);
+        this.journalRecords += journalRecords.length;
+        if (compactionExecutor != null && maxJournalRecords > 0 && this.journalRecords >= maxJournalRecords
+                && compactionRequested.compareAndSet(false, true)) {
+            compactionExecutor.execute(this::runCompaction);
+        }
+    }
+
+    private <T> T commit(Supplier<T> mutation) {
+        T result;
+        JournalWriter writer;
+        long sequence;
+        synchronized (this) {
+            prepareJournal();
+            result = mutation.get();
+            writer = journalWriter;
+            sequence = journalSequence;
+        }
+        if (writer != null) {
+            DeferredCommit deferred = deferredCommit.get();
+            if (deferred.deferring) {
+                deferred.writer = writer;
+                deferred.sequence = sequence;
+            } else {
+                writer.awaitDurable(sequence);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T deferDurability(Supplier<T> mutation) {
+        DeferredCommit deferred = deferredCommit.get();
+        deferred.writer = null;
+        deferred.deferring = true;
+        try {
+            return mutation.get();
+        } finally {
+            deferred.deferring = false;
+        }
+    }
+
+    @Override
+    public void awaitDurability() {
+        DeferredCommit deferred = deferredCommit.get();
+        JournalWriter writer = deferred.writer;
+        if (writer != null) {
+            deferred.writer = null;
+            writer.awaitDurable(deferred.sequence);
+        }
+    }
+
+    private void commit(Runnable mutation) {
+        commit(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private String putRecord(Task task) {
+        return JournalOperations.PUT + "," + task.toStringFile();
+    }
+
+    private String deleteRecord(int id) {
+        return JournalOperations.DELETE + "," + id;
+    }
+
+    private String clearRecord(TasksTypes type) {
+        return JournalOperations.CLEAR + "," + type;
+    }
+
+    @Override
+    public void close() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+            try {
+                compactionExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closeJournal();
+        }
+        if (compactionFailure != null) {
+            throw compactionFailure;
+        }
+    }
+
     @Override
     public int addNewTask(Task task) {
-        int id = super.addNewTask(task);
-        save();
-        return id;
+        return commit(() -> {
+            int id = super.addNewTask(task);
+            if (id != -1) {
+                persist(putRecord(task));
+            }
+            return id;
+        });
     }
 
     @Override
     public int addNewEpic(Epic epic) {
-        int id = super.addNewEpic(epic);
-        save();
-        return id;
+        return commit(() -> {
+            int id = super.addNewEpic(epic);
+            persist(putRecord(epic));
+            return id;
+        });
     }
 
     @Override
     public int addNewSubtask(Subtask subtask) {
-        int id = super.addNewSubtask(subtask);
-        save();
-        return id;
+        return commit(() -> {
+            int id = super.addNewSubtask(subtask);
+            if (id != -1) {
+                persist(putRecord(subtask), putRecord(epics.get(subtask.getIdOfEpic())));
+            }
+            return id;
+        });
     }
 
     @Override
     public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        commit(() -> {
+            super.updateTask(task);
+            persist(putRecord(task));
+        });
     }
 
     @Override
     public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+        commit(() -> {
+            super.updateEpic(epic);
+            if (epic != null && epic.getTaskId() != null && epics.containsKey(epic.getTaskId())) {
+                persist(putRecord(epics.get(epic.getTaskId())));
+            }
+        });
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        commit(() -> {
+            super.updateSubtask(subtask);
+            persist(putRecord(subtask), putRecord(epics.get(subtask.getIdOfEpic())));
+        });
     }
 
     @Override
     public void deleteTask(int id) {
-        super.deleteTask(id);
-        save();
+        commit(() -> {
+            super.deleteTask(id);
+            persist(deleteRecord(id));
+        });
     }
 
     @Override
     public void deleteEpic(int id) {
-        super.deleteEpic(id);
-        save();
+        commit(() -> {
+            super.deleteEpic(id);
+            persist(deleteRecord(id));
+        });
     }
 
     @Override
     public void deleteSubtask(Integer id) {
-        super.deleteSubtask(id);
-        save();
+        commit(() -> {
+            Subtask subtask = subtasks.get(id);
+            super.deleteSubtask(id);
+            persist(deleteRecord(id), putRecord(epics.get(subtask.getIdOfEpic())));
+        });
     }
 
     @Override
     public void deleteTasks() {
-        super.deleteTasks();
-        save();
+        commit(() -> {
+            super.deleteTasks();
+            persist(clearRecord(TasksTypes.TASK));
+        });
     }
 
     @Override
     public void deleteSubtasks() {
-        super.deleteSubtasks();
-        save();
+        commit(() -> {
+            super.deleteSubtasks();
+            persist(clearRecord(TasksTypes.SUBTASK));
+        });
     }
 
     @Override
     public void deleteEpics() {
-        super.deleteEpics();
-        save();
+        commit(() -> {
+            super.deleteEpics();
+            persist(clearRecord(TasksTypes.EPIC));
+        });
     }
 
     public Path getPath() {
         return path;
     }
+
+    private static class DeferredCommit {
+        private boolean deferring;
+        private JournalWriter writer;
+        private long sequence;
+    }
 }
\ No newline at end of file
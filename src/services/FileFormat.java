@@ -0,0 +1,6 @@
+package services;
+
+public enum FileFormat {
+    CSV,
+    BINARY
+}
@@ -0,0 +1,7 @@
+package services;
+
+public enum FsyncPolicy {
+    EVERY_WRITE,
+    INTERVAL,
+    OS
+}
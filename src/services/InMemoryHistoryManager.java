@@ -1,36 +1,51 @@
 package services;
 
 import tasks.Task;
+import util.IntHashMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
-    private final Map<Integer, Node<Task>> linkedHistoryList = new HashMap<>();
+    private final IntHashMap<Node<Task>> linkedHistoryList = new IntHashMap<>();
     private Node<Task> head;
     private Node<Task> tail;
+    private final int capacity;
+    private List<Task> historyView;
+
+    public InMemoryHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        this.capacity = capacity;
+    }
 
     @Override
-    public List<Task> getHistory() {
-        List<Task> searchHistoryList = new ArrayList<>();
-        if (head != null) {
-            searchHistoryList.add(head.currentTask);
-            Node<Task> nextNode = head.nextTask;
-            while (nextNode != null) {
-                searchHistoryList.add(nextNode.currentTask);
-                nextNode = nextNode.nextTask;
+    public synchronized List<Task> getHistory() {
+        if (historyView == null) {
+            List<Task> searchHistoryList = new ArrayList<>(linkedHistoryList.size());
+            for (Node<Task> node = head; node != null; node = node.nextTask) {
+                searchHistoryList.add(node.currentTask);
             }
+            historyView = Collections.unmodifiableList(searchHistoryList);
         }
-        return searchHistoryList;
+        return historyView;
     }
 
     @Override
-    public void add(Task task) {
+    public synchronized void add(Task task) {
         if (task != null) {
             remove(task.getTaskId());
             linkLast(task);
+            historyView = null;
+            if (linkedHistoryList.size() > capacity) {
+                removeNode(head);
+            }
         }
     }
 
@@ -69,9 +84,10 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     @Override
-    public void remove(int id) {
+    public synchronized void remove(int id) {
         if (linkedHistoryList.containsKey(id)) {
             removeNode(linkedHistoryList.get(id));
+            historyView = null;
         }
     }
 }
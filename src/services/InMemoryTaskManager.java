@@ -3,19 +3,39 @@ package services;
 import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
-import tasks.TaskStatuses;
+import tasks.TasksTypes;
+import util.IntHashMap;
 
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected final HashMap<Integer, Task> tasks = new HashMap<>();
-    protected final HashMap<Integer, Epic> epics = new HashMap<>();
-    protected final HashMap<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    protected final IntHashMap<Task> tasks = new IntHashMap<>();
+    protected final IntHashMap<Epic> epics = new IntHashMap<>();
+    protected final IntHashMap<Subtask> subtasks = new IntHashMap<>();
+    protected final BitSet taskIdIndex = new BitSet();
+    protected final BitSet epicIdIndex = new BitSet();
+    protected final BitSet subtaskIdIndex = new BitSet();
+    private final HistoryManager historyManager;
+    private final List<IntConsumer> removalListeners = new CopyOnWriteArrayList<>();
     protected Integer count = 0;
     protected TreeSet<Task> prioritizedTaskList = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    protected long version;
+    private final long[] versions = new long[TasksTypes.values().length];
+    private final VersionedView<Task> tasksView = new VersionedView<>();
+    private final VersionedView<Epic> epicsView = new VersionedView<>();
+    private final VersionedView<Subtask> subtasksView = new VersionedView<>();
+    private final VersionedView<Task> prioritizedView = new VersionedView<>();
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
 
     private Integer setId() {
         return count++;
@@ -23,17 +43,58 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getTasksList() {
-        return new ArrayList<>(tasks.values());
+        return tasksView.get(getVersion(TasksTypes.TASK), () -> List.copyOf(tasks.values()));
     }
 
     @Override
     public List<Epic> getEpicsList() {
-        return new ArrayList<>(epics.values());
+        return epicsView.get(getVersion(TasksTypes.EPIC), () -> List.copyOf(epics.values()));
     }
 
     @Override
     public List<Subtask> getSubtasksList() {
-        return new ArrayList<>(subtasks.values());
+        return subtasksView.get(getVersion(TasksTypes.SUBTASK), () -> List.copyOf(subtasks.values()));
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public long getVersion(TasksTypes type) {
+        return versions[type.ordinal()];
+    }
+
+    protected void modified(TasksTypes... types) {
+        version++;
+        for (TasksTypes type : types) {
+            versions[type.ordinal()] = version;
+        }
+    }
+
+    @Override
+    public List<Task> getTasksPage(int cursor, int limit) {
+        return getPage(taskIdIndex, tasks, cursor, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int cursor, int limit) {
+        return getPage(epicIdIndex, epics, cursor, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int cursor, int limit) {
+        return getPage(subtaskIdIndex, subtasks, cursor, limit);
+    }
+
+    private <T extends Task> List<T> getPage(BitSet idIndex, IntHashMap<T> items, int cursor, int limit) {
+        List<T> page = new ArrayList<>(Math.min(limit, items.size()));
+        for (int id = idIndex.nextSetBit(Math.max(cursor, 0)); id >= 0 && page.size() < limit;
+             id = idIndex.nextSetBit(id + 1)) {
+            page.add(items.get(id));
+        }
+        return page;
     }
 
     @Override
@@ -49,32 +110,47 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Task getTask(int id) {
+        Task task = peekTask(id);
+        historyManager.add(task);
+        return task;
+    }
+
+    @Override
+    public Subtask getSubTask(int id) {
+        Subtask subtask = peekSubtask(id);
+        historyManager.add(subtask);
+        return subtask;
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        Epic epic = peekEpic(id);
+        historyManager.add(epic);
+        return epic;
+    }
+
+    @Override
+    public Task peekTask(int id) {
         if (tasks.containsKey(id)) {
-            Task task = tasks.get(id);
-            historyManager.add(task);
-            return task;
+            return tasks.get(id);
         } else {
             throw new NotFoundException("Задача не найдена");
         }
     }
 
     @Override
-    public Subtask getSubTask(int id) {
+    public Subtask peekSubtask(int id) {
         if (subtasks.containsKey(id)) {
-            Subtask subtask = subtasks.get(id);
-            historyManager.add(subtask);
-            return subtask;
+            return subtasks.get(id);
         } else {
             throw new NotFoundException("Подзадача не найдена");
         }
     }
 
     @Override
-    public Epic getEpic(int id) {
+    public Epic peekEpic(int id) {
         if (epics.containsKey(id)) {
-            Epic epic = epics.get(id);
-            historyManager.add(epic);
-            return epic;
+            return epics.get(id);
         } else {
             throw new NotFoundException("Эпик не найден");
         }
@@ -86,7 +162,9 @@ public class InMemoryTaskManager implements TaskManager {
             Integer id = setId();
             task.setTaskId(id);
             tasks.put(id, task);
+            taskIdIndex.set(id);
             prioritizedTaskList.add(task);
+            modified(TasksTypes.TASK);
             return id;
         } else {
             return -1;
@@ -98,49 +176,24 @@ public class InMemoryTaskManager implements TaskManager {
         Integer id = setId();
         epic.setTaskId(id);
         epic.cleanSubtaskIds();
-        epic.setStatus(checkStatus(epic.getSubtaskIds()));
-        setTimeOfEpic(epic);
         epics.put(id, epic);
+        epicIdIndex.set(id);
+        modified(TasksTypes.EPIC);
         return id;
     }
 
-    protected TaskStatuses checkStatus(ArrayList<Integer> subtasksIds) {
-        int countNew;
-        int countDone = 0;
-        List<Subtask> subtasksOfEpic;
-        subtasksOfEpic = subtasksIds.stream()
-                .map(subtasks::get)
-                .toList();
-        if (subtasksOfEpic.isEmpty()) {
-            return TaskStatuses.NEW;
-        }
-        countNew = (int) subtasksOfEpic.stream()
-                .filter(subtask -> subtask.getStatus() == TaskStatuses.NEW)
-                .count();
-        countDone = (int) subtasksOfEpic.stream()
-                .filter(subtask -> subtask.getStatus() == TaskStatuses.DONE)
-                .count();
-        if (countNew == subtasksOfEpic.size()) {
-            return TaskStatuses.NEW;
-        } else if (countDone == subtasksOfEpic.size()) {
-            return TaskStatuses.DONE;
-        } else {
-            return TaskStatuses.IN_PROGRESS;
-        }
-    }
-
     @Override
     public int addNewSubtask(Subtask subtask) {
-        if (epics.containsKey(subtask.getIdOfEpic()) && !epics.containsKey(subtask.getTaskId())
+        if (epics.containsKey(subtask.getIdOfEpic())
+                && (subtask.getTaskId() == null || !epics.containsKey(subtask.getTaskId()))
                 && checkTimeIntersectionOfTasks(subtask)) {
             int id = setId();
             subtask.setTaskId(id);
             subtasks.put(id, subtask);
+            subtaskIdIndex.set(id);
             prioritizedTaskList.add(subtask);
-            Epic epic = epics.get(subtask.getIdOfEpic());
-            epic.saveSubtaskId(id);
-            epic.setStatus(checkStatus(epic.getSubtaskIds()));
-            setTimeOfEpic(epic);
+            epics.get(subtask.getIdOfEpic()).addSubtask(subtask);
+            modified(TasksTypes.SUBTASK, TasksTypes.EPIC);
             return id;
         } else {
             return -1;
@@ -149,11 +202,13 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void updateTask(Task task) {
-        if (task != null && tasks.containsKey(task.getTaskId()) && checkTimeIntersectionOfTasks(task)) {
+        if (task != null && task.getTaskId() != null && tasks.containsKey(task.getTaskId())
+                && checkTimeIntersectionOfTasks(task)) {
             Task taskToRemove = tasks.get(task.getTaskId());
             prioritizedTaskList.remove(taskToRemove);
             tasks.replace(task.getTaskId(), task);
             prioritizedTaskList.add(task);
+            modified(TasksTypes.TASK);
         } else {
             throw new ManagerSaveException("Задача пересекается с текущими");
         }
@@ -161,24 +216,31 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void updateEpic(Epic epic) {
-        if (epic != null && epics.containsKey(epic.getTaskId())) {
+        if (epic != null && epic.getTaskId() != null && epics.containsKey(epic.getTaskId())) {
             int id = epic.getTaskId();
             epics.get(id).setTaskName(epic.getTaskName());
             epics.get(id).setTaskDescription(epic.getTaskDescription());
+            modified(TasksTypes.EPIC);
         }
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-        if (subtask != null && subtasks.containsKey(subtask.getTaskId()) && checkTimeIntersectionOfTasks(subtask)) {
+        if (subtask != null && subtask.getTaskId() != null && subtasks.containsKey(subtask.getTaskId())
+                && epics.containsKey(subtask.getIdOfEpic()) && checkTimeIntersectionOfTasks(subtask)) {
             int id = subtask.getTaskId();
             Subtask subtaskToRemove = subtasks.get(id);
             prioritizedTaskList.remove(subtaskToRemove);
             subtasks.replace(id, subtask);
             prioritizedTaskList.add(subtask);
             Epic epic = epics.get(subtask.getIdOfEpic());
-            epic.setStatus(checkStatus(epic.getSubtaskIds()));
-            setTimeOfEpic(epic);
+            if (subtaskToRemove.getIdOfEpic() == subtask.getIdOfEpic()) {
+                epic.replaceSubtask(subtaskToRemove, subtask);
+            } else {
+                epics.get(subtaskToRemove.getIdOfEpic()).removeSubtask(subtaskToRemove);
+                epic.addSubtask(subtask);
+            }
+            modified(TasksTypes.SUBTASK, TasksTypes.EPIC);
         } else {
             throw new ManagerSaveException("Задача пересекается с текущими или не найдена");
         }
@@ -190,7 +252,9 @@ public class InMemoryTaskManager implements TaskManager {
             Task taskToRemove = tasks.get(id);
             prioritizedTaskList.remove(taskToRemove);
             tasks.remove(id);
-            historyManager.remove(id);
+            taskIdIndex.clear(id);
+            removeFromHistory(id);
+            modified(TasksTypes.TASK);
         } else {
             throw new NotFoundException("Такой задачи нет");
         }
@@ -205,10 +269,13 @@ public class InMemoryTaskManager implements TaskManager {
                         Subtask subtaskToRemove = subtasks.get(integer);
                         prioritizedTaskList.remove(subtaskToRemove);
                         subtasks.remove(integer);
-                        historyManager.remove(integer);
+                        subtaskIdIndex.clear(integer);
+                        removeFromHistory(integer);
                     });
             epics.remove(id);
-            historyManager.remove(id);
+            epicIdIndex.clear(id);
+            removeFromHistory(id);
+            modified(TasksTypes.EPIC, TasksTypes.SUBTASK);
         } else {
             throw new NotFoundException("Эпик с таким id не найден");
         }
@@ -219,14 +286,11 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtasks.containsKey(id)) {
             Subtask subtask = subtasks.get(id);
             prioritizedTaskList.remove(subtask);
-            int idOfEpic = subtask.getIdOfEpic();
-            Epic epic = epics.get(idOfEpic);
-            ArrayList<Integer> subtasksOfEpicIds = epic.getSubtaskIds();
-            subtasksOfEpicIds.remove(id);
-            epic.setStatus(checkStatus(subtasksOfEpicIds));
-            setTimeOfEpic(epic);
+            epics.get(subtask.getIdOfEpic()).removeSubtask(subtask);
             subtasks.remove(id);
-            historyManager.remove(id);
+            subtaskIdIndex.clear(id);
+            removeFromHistory(id);
+            modified(TasksTypes.SUBTASK, TasksTypes.EPIC);
         } else {
             throw new NotFoundException("Такой подзадачи нет");
         }
@@ -236,39 +300,41 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteTasks() {
         tasks.values()
                 .forEach(task -> {
-                    historyManager.remove(task.getTaskId());
+                    removeFromHistory(task.getTaskId());
                     prioritizedTaskList.remove(task);
                 });
         tasks.clear();
+        taskIdIndex.clear();
+        modified(TasksTypes.TASK);
     }
 
     @Override
     public void deleteSubtasks() {
         subtasks.values()
                 .forEach(subtask -> {
-                    historyManager.remove(subtask.getTaskId());
+                    removeFromHistory(subtask.getTaskId());
                     prioritizedTaskList.remove(subtask);
                 });
         subtasks.clear();
+        subtaskIdIndex.clear();
         epics.values()
-                .forEach(epic -> {
-                    epic.cleanSubtaskIds();
-                    epic.setStatus(checkStatus(epic.getSubtaskIds()));
-                    setTimeOfEpic(epic);
-                });
+                .forEach(Epic::cleanSubtaskIds);
+        modified(TasksTypes.SUBTASK, TasksTypes.EPIC);
     }
 
     @Override
     public void deleteEpics() {
         subtasks.values()
                 .forEach(subtask -> {
-                    historyManager.remove(subtask.getTaskId());
+                    removeFromHistory(subtask.getTaskId());
                     prioritizedTaskList.remove(subtask);
                 });
         subtasks.clear();
-        epics.keySet()
-                .forEach(historyManager::remove);
+        subtaskIdIndex.clear();
+        epics.forEachKey(this::removeFromHistory);
         epics.clear();
+        epicIdIndex.clear();
+        modified(TasksTypes.EPIC, TasksTypes.SUBTASK);
     }
 
     @Override
@@ -276,41 +342,39 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
-    protected void setTimeOfEpic(Epic epic) {
-        if (!epic.getSubtaskIds().isEmpty()) {
-            List<Subtask> subtasksOfEpic = getEpicSubtasks(epic.getTaskId());
-            subtasksOfEpic.sort(Comparator.comparing(Task::getStartTime));
-            Subtask startSubtask = subtasksOfEpic.getFirst();
-            Subtask endSubtask = subtasksOfEpic.getLast();
-            epic.setDuration(Duration.ofMinutes(subtasksOfEpic.stream()
-                    .map(Task::getDuration)
-                    .map(Duration::toMinutes)
-                    .reduce(Long::sum).get()));
-            epic.setStartTime(startSubtask.getStartTime());
-            epic.setEndTime(endSubtask.getEndTime());
-        } else {
-            epic.setDuration(Duration.ofMinutes(0));
-            epic.setStartTime(null);
-            epic.setEndTime(null);
+    @Override
+    public void addRemovalListener(IntConsumer listener) {
+        removalListeners.add(listener);
+    }
+
+    @Override
+    public void removeRemovalListener(IntConsumer listener) {
+        removalListeners.remove(listener);
+    }
+
+    private void removeFromHistory(int id) {
+        historyManager.remove(id);
+        for (IntConsumer listener : removalListeners) {
+            listener.accept(id);
         }
     }
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTaskList);
+        long prioritizedVersion = Math.max(getVersion(TasksTypes.TASK), getVersion(TasksTypes.SUBTASK));
+        return prioritizedView.get(prioritizedVersion, () -> List.copyOf(prioritizedTaskList));
     }
 
     protected boolean checkTimeIntersectionOfTasks(Task task) {
-        if (task.getStartTime() != null && task.getDuration() != null) {
-            return prioritizedTaskList.stream()
-                    .noneMatch(task1 -> (task.getStartTime().isAfter(task1.getStartTime()) &&
-                            task.getStartTime().isBefore(task1.getEndTime())) ||
-                            (task.getEndTime().isAfter(task1.getStartTime()) &&
-                                    task.getEndTime().isBefore(task1.getEndTime())) ||
-                            task.getStartTime().equals(task1.getStartTime()) ||
-                            task.getEndTime().equals(task1.getEndTime()));
-        } else {
+        if (task.getStartTime() == null || task.getDuration() == null) {
+            return false;
+        }
+        Task previousTask = prioritizedTaskList.floor(task);
+        if (previousTask != null && (previousTask.getStartTime().equals(task.getStartTime())
+                || previousTask.getEndTime().isAfter(task.getStartTime()))) {
             return false;
         }
+        Task nextTask = prioritizedTaskList.ceiling(task);
+        return nextTask == null || !nextTask.getStartTime().isBefore(task.getEndTime());
     }
 }
\ No newline at end of file
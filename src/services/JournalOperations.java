@@ -0,0 +1,7 @@
+package services;
+
+public enum JournalOperations {
+    PUT,
+    DELETE,
+    CLEAR
+}
@@ -0,0 +1,158 @@
+package services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class JournalWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final ScheduledExecutorService flusher;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flushing;
+    private boolean failed;
+
+    public JournalWriter(Path path, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.fsyncPolicy = fsyncPolicy;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Ошибка записи в журнал");
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushAppended, fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public synchronized long append(String... records) {
+        if (failed) {
+            throw new ManagerSaveException("Ошибка записи в журнал");
+        }
+        for (String record : records) {
+            pending.writeBytes(record.getBytes(StandardCharsets.UTF_8));
+            pending.write('\n');
+        }
+        appendedSequence++;
+        if (fsyncPolicy == FsyncPolicy.OS) {
+            try {
+                writeFully(pending.toByteArray());
+                pending.reset();
+                durableSequence = appendedSequence;
+            } catch (IOException exception) {
+                failed = true;
+                throw new ManagerSaveException("Ошибка записи в журнал");
+            }
+        }
+        return appendedSequence;
+    }
+
+    public void awaitDurable(long sequence) {
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            flush(sequence);
+        }
+    }
+
+    private void flush(long sequence) {
+        byte[] batch;
+        long batchSequence;
+        synchronized (this) {
+            while (flushing && durableSequence < sequence && !failed) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new ManagerSaveException("Ожидание записи в журнал прервано");
+                }
+            }
+            if (failed) {
+                throw new ManagerSaveException("Ошибка записи в журнал");
+            }
+            if (durableSequence >= sequence) {
+                return;
+            }
+            flushing = true;
+            batch = pending.toByteArray();
+            batchSequence = appendedSequence;
+            pending = new ByteArrayOutputStream();
+        }
+        boolean success = false;
+        try {
+            writeFully(batch);
+            channel.force(false);
+            success = true;
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Ошибка записи в журнал");
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                if (success) {
+                    durableSequence = batchSequence;
+                } else {
+                    failed = true;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void flushAppended() {
+        long sequence;
+        synchronized (this) {
+            sequence = appendedSequence;
+        }
+        flush(sequence);
+    }
+
+    private void writeFully(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ManagerSaveException failure = null;
+        try {
+            flushAppended();
+        } catch (ManagerSaveException exception) {
+            failure = exception;
+        }
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            if (failure == null) {
+                failure = new ManagerSaveException("Ошибка закрытия журнала");
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
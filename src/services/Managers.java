@@ -10,7 +10,32 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getDefault(int historyCapacity) {
+        return new InMemoryTaskManager(getDefaultHistory(historyCapacity));
+    }
+
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager(new InMemoryTaskManager(getConcurrentHistory(getDefaultHistory())));
+    }
+
+    public static TaskManager getConcurrent(int historyCapacity) {
+        return new ConcurrentTaskManager(new InMemoryTaskManager(
+                getConcurrentHistory(getArrayHistory(historyCapacity))));
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    public static HistoryManager getDefaultHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
+    }
+
+    public static HistoryManager getArrayHistory(int capacity) {
+        return new ArrayHistoryManager(capacity);
+    }
+
+    public static HistoryManager getConcurrentHistory(HistoryManager historyManager) {
+        return new ConcurrentHistoryManager(historyManager);
+    }
 }
@@ -3,8 +3,10 @@ package services;
 import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
+import tasks.TasksTypes;
 
 import java.util.List;
+import java.util.function.IntConsumer;
 
 public interface TaskManager {
     List<Task> getTasksList();
@@ -13,6 +15,12 @@ public interface TaskManager {
 
     List<Subtask> getSubtasksList();
 
+    List<Task> getTasksPage(int cursor, int limit);
+
+    List<Epic> getEpicsPage(int cursor, int limit);
+
+    List<Subtask> getSubtasksPage(int cursor, int limit);
+
     List<Subtask> getEpicSubtasks(int epicId);
 
     Task getTask(int id);
@@ -21,6 +29,12 @@ public interface TaskManager {
 
     Epic getEpic(int id);
 
+    Task peekTask(int id);
+
+    Subtask peekSubtask(int id);
+
+    Epic peekEpic(int id);
+
     int addNewTask(Task task);
 
     int addNewEpic(Epic epic);
@@ -47,5 +61,13 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    void addRemovalListener(IntConsumer listener);
+
+    void removeRemovalListener(IntConsumer listener);
+
     List<Task> getPrioritizedTasks();
+
+    long getVersion();
+
+    long getVersion(TasksTypes type);
 }
@@ -0,0 +1,27 @@
+package services;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+class VersionedView<T> {
+    private volatile Snapshot<T> snapshot;
+
+    List<T> get(long version, Supplier<List<T>> builder) {
+        Snapshot<T> current = snapshot;
+        if (current == null || current.version != version) {
+            current = new Snapshot<>(version, builder.get());
+            snapshot = current;
+        }
+        return current.items;
+    }
+
+    private static class Snapshot<T> {
+        private final long version;
+        private final List<T> items;
+
+        private Snapshot(long version, List<T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package tasks;
 
+import util.LinkedIntSet;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class Epic extends Task {
-    private final ArrayList<Integer> subtaskIds = new ArrayList<>();
+    private final LinkedIntSet subtaskIds = new LinkedIntSet();
     private LocalDateTime endTime;
+    private transient int[] statusCounts = new int[TaskStatuses.values().length];
+    private transient long durationMinutes;
+    private transient TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private transient TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
 
     public Epic(String taskName, String taskDescription) {
         this.taskName = taskName;
@@ -20,14 +28,61 @@ public class Epic extends Task {
 
     public void cleanSubtaskIds() {
         subtaskIds.clear();
+        statusCounts = new int[TaskStatuses.values().length];
+        durationMinutes = 0;
+        startTimes = new TreeMap<>();
+        endTimes = new TreeMap<>();
+        refreshAggregates();
     }
 
-    public ArrayList<Integer> getSubtaskIds() {
+    public Set<Integer> getSubtaskIds() {
         return subtaskIds;
     }
 
-    public void saveSubtaskId(int id) {
-        subtaskIds.add(id);
+    public void addSubtask(Subtask subtask) {
+        subtaskIds.addInt(subtask.getTaskId());
+        include(subtask);
+        refreshAggregates();
+    }
+
+    public void replaceSubtask(Subtask oldSubtask, Subtask newSubtask) {
+        exclude(oldSubtask);
+        include(newSubtask);
+        refreshAggregates();
+    }
+
+    public void removeSubtask(Subtask subtask) {
+        subtaskIds.removeInt(subtask.getTaskId());
+        exclude(subtask);
+        refreshAggregates();
+    }
+
+    private void include(Subtask subtask) {
+        statusCounts[subtask.getStatus().ordinal()]++;
+        durationMinutes += subtask.getDuration().toMinutes();
+        startTimes.merge(subtask.getStartTime(), 1, Integer::sum);
+        endTimes.merge(subtask.getEndTime(), 1, Integer::sum);
+    }
+
+    private void exclude(Subtask subtask) {
+        statusCounts[subtask.getStatus().ordinal()]--;
+        durationMinutes -= subtask.getDuration().toMinutes();
+        startTimes.computeIfPresent(subtask.getStartTime(), (time, count) -> count == 1 ? null : count - 1);
+        endTimes.computeIfPresent(subtask.getEndTime(), (time, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void refreshAggregates() {
+        int size = subtaskIds.size();
+        if (statusCounts[TaskStatuses.NEW.ordinal()] == size) {
+            status = TaskStatuses.NEW;
+        } else if (statusCounts[TaskStatuses.DONE.ordinal()] == size) {
+            status = TaskStatuses.DONE;
+        } else {
+            status = TaskStatuses.IN_PROGRESS;
+        }
+        duration = Duration.ofMinutes(durationMinutes);
+        startTime = startTimes.isEmpty() ? null : startTimes.firstKey();
+        endTime = endTimes.isEmpty() ? null : endTimes.lastKey();
     }
 
     public void setEndTime(LocalDateTime endTime) {
@@ -39,6 +94,11 @@ public class Epic extends Task {
         return endTime;
     }
 
+    @Override
+    public TasksTypes getType() {
+        return TasksTypes.EPIC;
+    }
+
     @Override
     public String toString() {
         return "Epic{" +
@@ -56,12 +116,12 @@ public class Epic extends Task {
     @Override
     public String toStringFile() {
         if (startTime != null) {
-            return String.join(",", taskId.toString(), TasksTypes.EPIC.toString(), taskName,
-                    status.toString(), taskDescription, String.valueOf(duration.toMinutes()),
+            return String.join(",", taskId.toString(), TasksTypes.EPIC.toString(), toCsvField(taskName),
+                    status.toString(), toCsvField(taskDescription), String.valueOf(duration.toMinutes()),
                     startTime.format(FORMATTER), endTime.format(FORMATTER));
         } else {
-            return String.join(",", taskId.toString(), TasksTypes.EPIC.toString(), taskName,
-                    status.toString(), taskDescription, String.valueOf(duration.toMinutes()));
+            return String.join(",", taskId.toString(), TasksTypes.EPIC.toString(), toCsvField(taskName),
+                    status.toString(), toCsvField(taskDescription), String.valueOf(duration.toMinutes()));
         }
     }
 }
@@ -27,6 +27,11 @@ public class Subtask extends Task {
         return idOfEpic;
     }
 
+    @Override
+    public TasksTypes getType() {
+        return TasksTypes.SUBTASK;
+    }
+
     @Override
     public String toString() {
         return "Subtask{" +
@@ -41,8 +46,8 @@ public class Subtask extends Task {
     }
 
     public String toStringFile() {
-        return String.join(",", taskId.toString(), TasksTypes.SUBTASK.toString(), taskName,
-                status.toString(), taskDescription, idOfEpic.toString(), String.valueOf(duration.toMinutes()),
-                startTime.format(FORMATTER));
+        return String.join(",", taskId.toString(), TasksTypes.SUBTASK.toString(), toCsvField(taskName),
+                status.toString(), toCsvField(taskDescription), idOfEpic.toString(),
+                String.valueOf(duration.toMinutes()), startTime.format(FORMATTER));
     }
 }
@@ -117,6 +117,10 @@ public class Task {
         return startTime.plus(duration);
     }
 
+    public TasksTypes getType() {
+        return TasksTypes.TASK;
+    }
+
     @Override
     public String toString() {
         return "Task{" +
@@ -130,7 +134,16 @@ public class Task {
     }
 
     public String toStringFile() {
-        return String.join(",", taskId.toString(), TasksTypes.TASK.toString(), taskName,
-                status.toString(), taskDescription, String.valueOf(duration.toMinutes()), startTime.format(FORMATTER));
+        return String.join(",", taskId.toString(), TasksTypes.TASK.toString(), toCsvField(taskName),
+                status.toString(), toCsvField(taskDescription), String.valueOf(duration.toMinutes()),
+                startTime.format(FORMATTER));
+    }
+
+    protected static String toCsvField(String value) {
+        String field = String.valueOf(value);
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
     }
 }
@@ -0,0 +1,106 @@
+package util;
+
+import java.util.Arrays;
+
+public class IntIntHashMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int threshold;
+
+    public IntIntHashMap(int missingValue) {
+        this.missingValue = missingValue;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int key) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : missingValue;
+    }
+
+    public int put(int key, int value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            int oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > threshold) {
+            resize();
+        }
+        return missingValue;
+    }
+
+    public int remove(int key) {
+        int index = indexOf(key);
+        if (!used[index]) {
+            return missingValue;
+        }
+        int oldValue = values[index];
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return oldValue;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        threshold = capacity * 3 / 4;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+}
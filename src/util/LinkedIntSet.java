@@ -0,0 +1,198 @@
+package util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class LinkedIntSet extends AbstractSet<Integer> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+    private int[] keys;
+    private int[] before;
+    private int[] after;
+    private boolean[] used;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+    private int threshold;
+
+    public LinkedIntSet() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer value && containsInt(value);
+    }
+
+    public boolean containsInt(int value) {
+        return used[indexOf(value)];
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return addInt(value);
+    }
+
+    public boolean addInt(int value) {
+        int index = indexOf(value);
+        if (used[index]) {
+            return false;
+        }
+        keys[index] = value;
+        used[index] = true;
+        before[index] = tail;
+        after[index] = NONE;
+        if (tail == NONE) {
+            head = index;
+        } else {
+            after[tail] = index;
+        }
+        tail = index;
+        if (++size > threshold) {
+            resize();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer value && removeInt(value);
+    }
+
+    public boolean removeInt(int value) {
+        int index = indexOf(value);
+        if (!used[index]) {
+            return false;
+        }
+        unlink(index);
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                move(next, gap);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(used, false);
+        head = NONE;
+        tail = NONE;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int next = head;
+            private int last = NONE;
+
+            @Override
+            public boolean hasNext() {
+                return next != NONE;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == NONE) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = after[next];
+                return keys[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last == NONE) {
+                    throw new IllegalStateException();
+                }
+                int nextKey = next == NONE ? 0 : keys[next];
+                removeInt(keys[last]);
+                last = NONE;
+                if (next != NONE) {
+                    next = indexOf(nextKey);
+                }
+            }
+        };
+    }
+
+    private void unlink(int index) {
+        if (before[index] == NONE) {
+            head = after[index];
+        } else {
+            after[before[index]] = after[index];
+        }
+        if (after[index] == NONE) {
+            tail = before[index];
+        } else {
+            before[after[index]] = before[index];
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        used[to] = true;
+        before[to] = before[from];
+        after[to] = after[from];
+        if (before[to] == NONE) {
+            head = to;
+        } else {
+            after[before[to]] = to;
+        }
+        if (after[to] == NONE) {
+            tail = to;
+        } else {
+            before[after[to]] = to;
+        }
+    }
+
+    private int indexOf(int value) {
+        int mask = keys.length - 1;
+        int index = hash(value) & mask;
+        while (used[index] && keys[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(int value) {
+        return value ^ (value >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        before = new int[capacity];
+        after = new int[capacity];
+        used = new boolean[capacity];
+        threshold = capacity * 3 / 4;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldAfter = after;
+        int oldHead = head;
+        allocate(oldKeys.length << 1);
+        head = NONE;
+        tail = NONE;
+        size = 0;
+        for (int index = oldHead; index != NONE; index = oldAfter[index]) {
+            addInt(oldKeys[index]);
+        }
+    }
+}
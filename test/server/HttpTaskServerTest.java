@@ -1,6 +1,7 @@
 package server;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParser;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,17 +11,23 @@ import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 import tasks.TaskStatuses;
+import tasks.TasksTypes;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -782,4 +789,404 @@ class HttpTaskServerTest {
         assertEquals(200, code);
         assertEquals(prioritizedJson, body);
     }
-}
\ No newline at end of file
+
+    @Test
+    void httpTaskServerWithExecutorHandlesParallelRequestsOnCustomPort() throws IOException {
+        TaskManager concurrentManager = Managers.getConcurrent();
+        concurrentManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 1, 2, 3, 4)));
+        HttpTaskServer virtualServer = new HttpTaskServer(concurrentManager, 8081, 64, ExecutorType.VIRTUAL, 0);
+        virtualServer.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder()
+                    .GET()
+                    .uri(URI.create("http://localhost:8081/tasks/0"))
+                    .build();
+            List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, 32)
+                    .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+            responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+            assertEquals(1, concurrentManager.getHistory().size());
+        } finally {
+            virtualServer.stop();
+        }
+    }
+
+    @Test
+    void httpTaskServerKeepsSeparateHistoryForEachSession() throws IOException, InterruptedException {
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        int task2Id = taskManager.addNewTask(new Task("Задача 2", "Описание задачи 2", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 3, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString();
+        client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/" + task1Id))
+                .header(HistorySessions.SESSION_HEADER, "first")
+                .build(), handler);
+        client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/" + task2Id))
+                .header(HistorySessions.SESSION_HEADER, "second")
+                .build(), handler);
+        HttpRequest firstHistory = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/history"))
+                .header(HistorySessions.SESSION_HEADER, "first")
+                .build();
+        HttpResponse<String> response = client.send(firstHistory, handler);
+        String body = Arrays.stream(response.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(taskManager.getTask(task1Id))), body);
+
+        client.send(HttpRequest.newBuilder()
+                .DELETE()
+                .uri(URI.create("http://localhost:8080/tasks/" + task1Id))
+                .build(), handler);
+        response = client.send(firstHistory, handler);
+        body = Arrays.stream(response.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals("[]", body);
+    }
+
+    @Test
+    void httpTaskServerPurgesSessionHistoryOnDirectManagerDeletes() throws IOException, InterruptedException {
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        int subtask1Id = taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 5, 10, 0)));
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString();
+        for (String path : List.of("/epics/" + epic1Id, "/subtasks/" + subtask1Id, "/tasks/" + task1Id)) {
+            client.send(HttpRequest.newBuilder()
+                    .GET()
+                    .uri(URI.create("http://localhost:8080" + path))
+                    .header(HistorySessions.SESSION_HEADER, "first")
+                    .build(), handler);
+        }
+        HttpRequest history = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/history"))
+                .header(HistorySessions.SESSION_HEADER, "first")
+                .build();
+        String body = Arrays.stream(client.send(history, handler).body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(3, JsonParser.parseString(body).getAsJsonArray().size());
+
+        taskManager.deleteEpic(epic1Id);
+        taskManager.deleteTasks();
+        body = Arrays.stream(client.send(history, handler).body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals("[]", body);
+    }
+
+    @Test
+    void httpTaskServerDoesNotRecordSessionViewsInSharedHistory() throws IOException, InterruptedException {
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/" + task1Id))
+                .header(HistorySessions.SESSION_HEADER, "first")
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(taskManager.getHistory().isEmpty());
+
+        client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/" + task1Id))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(List.of(taskManager.peekTask(task1Id)), taskManager.getHistory());
+    }
+
+    @Test
+    void historySessionsEvictIdleSessions() throws InterruptedException {
+        try (HistorySessions historySessions = new HistorySessions(10, 50)) {
+            historySessions.add("first", new Task(1, "Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+            assertEquals(1, historySessions.size());
+            Thread.sleep(100);
+            historySessions.evictIdle();
+            assertEquals(0, historySessions.size());
+            assertTrue(historySessions.getHistory("first").isEmpty());
+        }
+    }
+
+    @Test
+    void historySessionsEvictLeastRecentlyUsedSessionWhenFull() {
+        Task task = new Task(1, "Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0));
+        try (HistorySessions historySessions = new HistorySessions(10, 60_000, 2)) {
+            historySessions.add("first", task);
+            historySessions.add("second", task);
+            historySessions.getHistory("first");
+            historySessions.add("third", task);
+            assertEquals(2, historySessions.size());
+            assertEquals(List.of(task), historySessions.getHistory("first"));
+            assertTrue(historySessions.getHistory("second").isEmpty());
+            assertEquals(List.of(task), historySessions.getHistory("third"));
+        }
+    }
+
+    @Test
+    void httpTaskServerCanPageThroughTasks() throws IOException, InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 10 + i, 0)));
+        }
+        List<Task> tasks = taskManager.getTasksPage(0, 5);
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks?limit=3"))
+                .build(), handler);
+        String body = Arrays.stream(response.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(0, 3)), body);
+        String cursor = response.headers().firstValue("X-Next-Cursor").orElseThrow();
+        response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks?limit=3&cursor=" + cursor))
+                .build(), handler);
+        body = Arrays.stream(response.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(gson.toJson(tasks.subList(3, 5)), body);
+        assertTrue(response.headers().firstValue("X-Next-Cursor").isEmpty());
+        response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks?limit=abc"))
+                .build(), handler);
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void httpTaskServerIgnoresUnrelatedQueryParametersOnListEndpoints() throws IOException, InterruptedException {
+        for (int i = 0; i < 1001; i++) {
+            taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 10, 0).plusHours(i)));
+        }
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks?_=123"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String body = Arrays.stream(response.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        List<Task> tasks = gson.fromJson(body, new TaskListTypeToken().getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(1001, tasks.size());
+        assertTrue(response.headers().firstValue("X-Next-Cursor").isEmpty());
+    }
+
+    @Test
+    void httpTaskServerWithCompactProfileReturnsCompactJson() throws IOException, InterruptedException {
+        taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.IN_PROGRESS, Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 5, 10, 0)));
+        HttpTaskServer compactServer = new HttpTaskServer(taskManager, 8081, 0, ExecutorType.DISPATCHER, 0,
+                new HistorySessions(10, 60_000), JsonProfile.COMPACT);
+        compactServer.start();
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                    .GET()
+                    .uri(URI.create("http://localhost:8081/prioritized"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            String body = Arrays.stream(response.body().split("\n")).skip(1)
+                    .collect(Collectors.joining("\n"));
+            Gson compactGson = HttpTaskServer.getGson(JsonProfile.COMPACT);
+            assertEquals(200, response.statusCode());
+            assertEquals(compactGson.toJson(taskManager.getPrioritizedTasks()), body);
+            assertFalse(body.contains("\n"));
+            assertEquals(JsonParser.parseString(gson.toJson(taskManager.getPrioritizedTasks())),
+                    JsonParser.parseString(body));
+        } finally {
+            compactServer.stop();
+        }
+    }
+
+    @Test
+    void httpTaskServerCompressesLargeResponsesWhenClientAcceptsGzip() throws IOException, InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0).plusHours(i)));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/prioritized"))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(""));
+        String body;
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        body = Arrays.stream(body.split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(gson.toJson(taskManager.getPrioritizedTasks()), body);
+
+        HttpResponse<String> smallResponse = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/0"))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, smallResponse.statusCode());
+        assertTrue(smallResponse.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    @Test
+    void httpTaskServerAnswersNotModifiedWhileTasksAreUnchanged() throws IOException, InterruptedException {
+        taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString();
+        URI uri = URI.create("http://localhost:8080/tasks");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().GET().uri(uri).build(), handler);
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        HttpRequest conditionalRequest = HttpRequest.newBuilder()
+                .GET()
+                .uri(uri)
+                .header("If-None-Match", etag)
+                .build();
+        response = client.send(conditionalRequest, handler);
+        assertEquals(304, response.statusCode());
+        assertTrue(response.body().isEmpty());
+
+        taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        assertEquals(304, client.send(conditionalRequest, handler).statusCode());
+
+        taskManager.addNewTask(new Task("Задача 2", "Описание задачи 2", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 3, 16, 0)));
+        response = client.send(conditionalRequest, handler);
+        assertEquals(200, response.statusCode());
+        assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void httpTaskServerDoesNotMatchEtagFromAnotherInstance() throws IOException, InterruptedException {
+        taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .build(), handler);
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+
+        TaskManager otherManager = Managers.getDefault();
+        for (int i = 0; otherManager.getVersion(TasksTypes.TASK) < taskManager.getVersion(TasksTypes.TASK); i++) {
+            otherManager.addNewTask(new Task("Другая задача", "Описание другой задачи", TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 3, 16, 0).plusHours(i)));
+        }
+        assertEquals(taskManager.getVersion(TasksTypes.TASK), otherManager.getVersion(TasksTypes.TASK));
+        HttpTaskServer otherServer = new HttpTaskServer(otherManager, 8081, 0, ExecutorType.DISPATCHER, 0);
+        otherServer.start();
+        try {
+            response = client.send(HttpRequest.newBuilder()
+                    .GET()
+                    .uri(URI.create("http://localhost:8081/tasks"))
+                    .header("If-None-Match", etag)
+                    .build(), handler);
+            assertEquals(200, response.statusCode());
+            assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+            assertTrue(response.body().contains("Другая задача"));
+        } finally {
+            otherServer.stop();
+        }
+    }
+
+    @Test
+    void httpTaskServerServesRepeatedListRequestsFromCache() throws IOException, InterruptedException {
+        for (int i = 0; i < 30; i++) {
+            taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0).plusHours(i)));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .build();
+        HttpRequest gzipRequest = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<String> first = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> second = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(first.body(), second.body());
+        assertEquals(String.valueOf(second.body().getBytes(StandardCharsets.UTF_8).length),
+                second.headers().firstValue("Content-Length").orElseThrow());
+        HttpResponse<byte[]> gzipped = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(""));
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertEquals(first.body(), new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        taskManager.deleteTask(0);
+        HttpResponse<String> third = client.send(request, HttpResponse.BodyHandlers.ofString());
+        String body = Arrays.stream(third.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals(gson.toJson(taskManager.getTasksList()), body);
+    }
+
+    @Test
+    void httpTaskServerRefreshesCachedSubtasksAfterSubtaskIsAdded() throws IOException, InterruptedException {
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/subtasks"))
+                .build();
+        HttpResponse<String> first = client.send(request, HttpResponse.BodyHandlers.ofString());
+        String firstBody = Arrays.stream(first.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        assertEquals("[]", firstBody);
+
+        taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 5, 10, 0)));
+        HttpResponse<String> second = client.send(request, HttpResponse.BodyHandlers.ofString());
+        String secondBody = Arrays.stream(second.body().split("\n")).skip(1)
+                .collect(Collectors.joining("\n"));
+        List<Subtask> subtasks = gson.fromJson(secondBody, new SubtaskListTypeToken().getType());
+        assertEquals(200, second.statusCode());
+        assertEquals(1, subtasks.size());
+        assertEquals("подзадача 1", subtasks.getFirst().getTaskName());
+        assertNotEquals(first.headers().firstValue("ETag").orElseThrow(),
+                second.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void httpTaskServerSendsSmallResponsesWithContentLength() throws IOException, InterruptedException {
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2020, 10, 2, 16, 0)));
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/" + task1Id))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals("text/plain; charset=utf-8", response.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(String.valueOf(response.body().getBytes(StandardCharsets.UTF_8).length),
+                response.headers().firstValue("Content-Length").orElseThrow());
+        assertTrue(response.headers().firstValue("Transfer-Encoding").isEmpty());
+
+        HttpResponse<String> notFound = client.send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("http://localhost:8080/tasks/100"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(404, notFound.statusCode());
+        assertEquals("text/plain; charset=utf-8", notFound.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(String.valueOf(notFound.body().getBytes(StandardCharsets.UTF_8).length),
+                notFound.headers().firstValue("Content-Length").orElseThrow());
+    }
+}
@@ -0,0 +1,53 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import tasks.Task;
+import tasks.TaskStatuses;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayHistoryManagerTest {
+    private final LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Task createTask(int id) {
+        return new Task(id, "Задача " + id, "Описание задачи " + id, TaskStatuses.NEW,
+                Duration.ofMinutes(30), time.plusHours(id));
+    }
+
+    @Test
+    void arrayHistoryMatchesLinkedHistory() {
+        HistoryManager expected = new InMemoryHistoryManager(50);
+        HistoryManager historyManager = Managers.getArrayHistory(50);
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            int id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                historyManager.remove(id);
+            } else {
+                Task task = createTask(id);
+                expected.add(task);
+                historyManager.add(task);
+            }
+        }
+        assertEquals(expected.getHistory(), historyManager.getHistory());
+    }
+
+    @Test
+    void arrayHistoryMovesRecalledTaskToTheEnd() {
+        HistoryManager historyManager = new ArrayHistoryManager();
+        historyManager.add(createTask(1));
+        historyManager.add(createTask(2));
+        historyManager.add(createTask(1));
+        assertEquals(2, historyManager.getHistory().get(0).getTaskId());
+        assertEquals(1, historyManager.getHistory().get(1).getTaskId());
+        historyManager.remove(1);
+        historyManager.remove(2);
+        assertTrue(historyManager.getHistory().isEmpty());
+    }
+}
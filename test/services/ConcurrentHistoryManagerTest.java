@@ -0,0 +1,120 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import tasks.Task;
+import tasks.TaskStatuses;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentHistoryManagerTest {
+    private final LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private Task createTask(int id) {
+        return new Task(id, "Задача " + id, "Описание задачи " + id, TaskStatuses.NEW,
+                Duration.ofMinutes(30), time.plusHours(id));
+    }
+
+    @Test
+    void concurrentHistoryKeepsOrderOfSingleThread() {
+        HistoryManager historyManager = Managers.getConcurrentHistory(Managers.getDefaultHistory());
+        for (int i = 0; i < 3_000; i++) {
+            historyManager.add(createTask(i % 10));
+        }
+        historyManager.remove(0);
+        List<Task> history = historyManager.getHistory();
+        assertEquals(9, history.size());
+        for (int i = 0; i < 9; i++) {
+            assertEquals(i + 1, history.get(i).getTaskId());
+        }
+    }
+
+    @Test
+    void concurrentHistoryRecordsViewsFromAllThreads() throws Exception {
+        int threads = 8;
+        int viewsPerThread = 5_000;
+        HistoryManager historyManager = new ConcurrentHistoryManager(new InMemoryHistoryManager(), 4);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < viewsPerThread; j++) {
+                    historyManager.add(createTask(thread * 100 + j % 100));
+                    if (j % 1000 == 0) {
+                        historyManager.getHistory();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        List<Task> history = historyManager.getHistory();
+        Set<Integer> ids = new HashSet<>();
+        history.forEach(task -> ids.add(task.getTaskId()));
+        assertEquals(threads * 100, history.size());
+        assertEquals(threads * 100, ids.size());
+        assertTrue(ids.contains(threads * 100 - 1));
+    }
+
+    @Test
+    void concurrentHistoryKeepsOrderOfViewsFromDifferentThreads() throws Exception {
+        int writers = 4;
+        int views = 2_000;
+        HistoryManager historyManager = new ConcurrentHistoryManager(Managers.getDefaultHistory(), writers);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < views; i++) {
+            tasks.add(createTask(i));
+        }
+        AtomicInteger turn = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            int writer = i;
+            futures.add(executor.submit(() -> {
+                for (int view = writer; view < views; view += writers) {
+                    while (turn.get() != view) {
+                        Thread.yield();
+                    }
+                    historyManager.add(tasks.get(view));
+                    turn.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        Future<?> reader = executor.submit(() -> {
+            while (writing.get()) {
+                historyManager.getHistory();
+            }
+            return null;
+        });
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        reader.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        assertEquals(tasks, historyManager.getHistory());
+    }
+}
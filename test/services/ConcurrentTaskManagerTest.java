@@ -0,0 +1,129 @@
+package services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+import tasks.TaskStatuses;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<TaskManager> {
+    @BeforeEach
+    public void initManager() {
+        taskManager = Managers.getConcurrent();
+    }
+
+    @Test
+    void checkConcurrentWritersAndReadersKeepManagerConsistent() throws Exception {
+        int writers = 8;
+        int tasksPerWriter = 500;
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 0, 0);
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        ExecutorService executor = Executors.newFixedThreadPool(writers * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Integer> ids = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            int writer = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < tasksPerWriter; j++) {
+                    LocalDateTime startTime = time.plusHours((long) writer * tasksPerWriter + j);
+                    if (j % 2 == 0) {
+                        ids.add(taskManager.addNewTask(new Task("Задача", "Описание задачи",
+                                TaskStatuses.NEW, Duration.ofMinutes(30), startTime)));
+                    } else {
+                        ids.add(taskManager.addNewSubtask(new Subtask(epic1Id, "Подзадача",
+                                "Описание подзадачи", TaskStatuses.DONE, Duration.ofMinutes(30), startTime)));
+                    }
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < tasksPerWriter; j++) {
+                    taskManager.getPrioritizedTasks();
+                    taskManager.getEpic(epic1Id);
+                    taskManager.getHistory();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        Set<Integer> uniqueIds = new HashSet<>(ids);
+        assertEquals(writers * tasksPerWriter, uniqueIds.size());
+        assertFalse(uniqueIds.contains(-1));
+        assertEquals(writers * tasksPerWriter, taskManager.getPrioritizedTasks().size());
+        assertEquals(writers * tasksPerWriter / 2, taskManager.getEpic(epic1Id).getSubtaskIds().size());
+        assertEquals(TaskStatuses.DONE, taskManager.getEpic(epic1Id).getStatus());
+        assertEquals(1, taskManager.getHistory().size());
+    }
+
+    @Test
+    void checkJournaledWritesAreDurableWhenWrapperReturns() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        File journal = new File(file.getPath() + ".journal");
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        TaskManager concurrentManager = new ConcurrentTaskManager(fileBackedTaskManager);
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 0, 0);
+        int task1Id = concurrentManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time));
+        assertEquals(1, Files.readAllLines(journal.toPath()).size());
+        concurrentManager.deleteTask(task1Id);
+        assertEquals(2, Files.readAllLines(journal.toPath()).size());
+        fileBackedTaskManager.close();
+    }
+
+    @Test
+    void checkConcurrentJournaledWritesSurviveReload() throws Exception {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        TaskManager concurrentManager = new ConcurrentTaskManager(fileBackedTaskManager);
+        int writers = 8;
+        int tasksPerWriter = 50;
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            int writer = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < tasksPerWriter; j++) {
+                    concurrentManager.addNewTask(new Task("Задача", "Описание задачи", TaskStatuses.NEW,
+                            Duration.ofMinutes(30), time.plusHours((long) writer * tasksPerWriter + j)));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        fileBackedTaskManager.close();
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertEquals(writers * tasksPerWriter, restoredManager.getTasksList().size());
+    }
+}
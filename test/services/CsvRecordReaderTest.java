@@ -0,0 +1,61 @@
+package services;
+
+import org.junit.jupiter.api.Test;
+import tasks.TaskStatuses;
+import tasks.TasksTypes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+    private CsvRecordReader readerOf(String content) {
+        return new CsvRecordReader(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readerSplitsRecordIntoTypedFields() {
+        CsvRecordReader reader = readerOf("7,TASK,Задача,IN_PROGRESS,Описание,-15,05-06-2024 07:45\n");
+        assertTrue(reader.next());
+        assertEquals(7, reader.fieldCount());
+        assertEquals(7, reader.getInt(0));
+        assertEquals(TasksTypes.TASK, reader.getEnum(1, TasksTypes.values()));
+        assertEquals("Задача", reader.getString(2));
+        assertEquals(TaskStatuses.IN_PROGRESS, reader.getEnum(3, TaskStatuses.values()));
+        assertEquals(-15, reader.getLong(5));
+        assertEquals(LocalDateTime.of(2024, 6, 5, 7, 45), reader.getDateTime(6));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void readerUnescapesQuotedFieldsWithCommasQuotesAndNewLines() {
+        CsvRecordReader reader = readerOf("1,\"Имя, с запятой\",\"Строка 1\nСтрока \"\"2\"\"\",\"\"\r\n2,x\n");
+        assertTrue(reader.next());
+        assertEquals(4, reader.fieldCount());
+        assertEquals("Имя, с запятой", reader.getString(1));
+        assertEquals("Строка 1\nСтрока \"2\"", reader.getString(2));
+        assertEquals("", reader.getString(3));
+        assertTrue(reader.next());
+        assertEquals(2, reader.getInt(0));
+        assertEquals("x", reader.getString(1));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void readerSkipsEmptyLinesAndUnterminatedQuotedTail() {
+        CsvRecordReader reader = readerOf("\n\n1,a\n2,\"оборванная запись");
+        assertTrue(reader.next());
+        assertEquals(1, reader.getInt(0));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void readerRejectsMalformedNumbers() {
+        CsvRecordReader reader = readerOf("1x,\n");
+        assertTrue(reader.next());
+        assertThrows(NumberFormatException.class, () -> reader.getInt(0));
+        assertThrows(NumberFormatException.class, () -> reader.getInt(1));
+    }
+}
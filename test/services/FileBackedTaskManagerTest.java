@@ -11,8 +11,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -295,4 +297,369 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertThrows(ManagerLoadException.class, () ->
                 FileBackedTaskManager.loadFromFile(new File("src//test.CSV")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkJournalModeAppendsOneRecordPerMutationAndKeepsSnapshot() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        int task1Id = journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, duration, time));
+        journalManager.updateTask(new Task(task1Id, "Задача 1", "Обновленная задача 1",
+                TaskStatuses.DONE, duration, time.plus(duration)));
+        journalManager.close();
+        File journal = new File(file.getPath() + ".journal");
+        assertEquals(1, Files.readAllLines(file.toPath()).size());
+        assertEquals(2, Files.readAllLines(journal.toPath()).size());
+    }
+
+    @Test
+    void checkJournalModeKeepsExistingFilesUntilFirstWrite() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        File journal = new File(file.getPath() + ".journal");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW, duration, time));
+        journalManager.close();
+        List<String> snapshot = Files.readAllLines(file.toPath());
+        List<String> records = Files.readAllLines(journal.toPath());
+
+        FileBackedTaskManager freshManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        assertEquals(snapshot, Files.readAllLines(file.toPath()));
+        assertEquals(records, Files.readAllLines(journal.toPath()));
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL).getTasksList().size());
+
+        freshManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        freshManager.close();
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertTrue(restoredManager.getTasksList().isEmpty());
+        assertEquals(1, restoredManager.getEpicsList().size());
+    }
+
+    @Test
+    void checkFailedInitialSnapshotKeepsPreviousSnapshotAndJournal() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        File journal = new File(file.getPath() + ".journal");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), time));
+        journalManager.close();
+        byte[] snapshot = Files.readAllBytes(file.toPath());
+        byte[] records = Files.readAllBytes(journal.toPath());
+        File blockedTempFile = new File(file.getPath() + ".tmp");
+        assertTrue(blockedTempFile.mkdir());
+
+        FileBackedTaskManager freshManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        assertThrows(ManagerSaveException.class, () -> freshManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1")));
+        assertArrayEquals(snapshot, Files.readAllBytes(file.toPath()));
+        assertArrayEquals(records, Files.readAllBytes(journal.toPath()));
+        assertTrue(blockedTempFile.delete());
+    }
+
+    @Test
+    void checkJournalModeRestoresStateFromSnapshotAndJournal() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        int task1Id = journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, duration, time));
+        journalManager.save();
+        int epic1Id = journalManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        int subtask1Id = journalManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1",
+                "Описание подзадачи 1", TaskStatuses.DONE, duration, time.plusHours(1)));
+        int subtask2Id = journalManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 2",
+                "Описание подзадачи 2", TaskStatuses.NEW, duration, time.plusHours(2)));
+        journalManager.deleteSubtask(subtask2Id);
+        journalManager.deleteTask(task1Id);
+        journalManager.close();
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertTrue(restoredManager.getTasksList().isEmpty());
+        assertEquals(journalManager.getEpic(epic1Id), restoredManager.getEpic(epic1Id));
+        assertEquals(TaskStatuses.DONE, restoredManager.getEpic(epic1Id).getStatus());
+        assertArrayEquals(new Integer[]{subtask1Id}, restoredManager.getEpic(epic1Id).getSubtaskIds().toArray());
+        assertEquals(journalManager.getEpic(epic1Id).getEndTime(), restoredManager.getEpic(epic1Id).getEndTime());
+        assertArrayEquals(journalManager.getPrioritizedTasks().toArray(),
+                restoredManager.getPrioritizedTasks().toArray());
+        assertEquals(subtask2Id + 1, restoredManager.addNewEpic(new Epic("Эпик 2", "Описание эпика 2")));
+    }
+
+    @Test
+    void checkCompactionFoldsJournalIntoSnapshot() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        int epic1Id = journalManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        int subtask1Id = journalManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1",
+                "Описание подзадачи 1", TaskStatuses.IN_PROGRESS, duration, time));
+        journalManager.compact();
+        int task1Id = journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, duration, time.plusHours(1)));
+        journalManager.close();
+        assertEquals(3, Files.readAllLines(file.toPath()).size());
+        assertEquals(1, Files.readAllLines(new File(file.getPath() + ".journal").toPath()).size());
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertEquals(journalManager.getTask(task1Id), restoredManager.getTask(task1Id));
+        assertEquals(journalManager.getSubTask(subtask1Id), restoredManager.getSubTask(subtask1Id));
+        assertEquals(TaskStatuses.IN_PROGRESS, restoredManager.getEpic(epic1Id).getStatus());
+    }
+
+    @Test
+    void checkBackgroundCompactionTruncatesJournal() throws IOException, InterruptedException {
+        File file = File.createTempFile("test", ".CSV");
+        File journal = new File(file.getPath() + ".journal");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        journalManager.startCompaction(10, 2);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            journalManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), time.plusHours(i)));
+        }
+        for (int i = 0; i < 100 && journal.exists(); i++) {
+            Thread.sleep(20);
+        }
+        journalManager.close();
+        assertFalse(journal.exists());
+        assertEquals(6, Files.readAllLines(file.toPath()).size());
+    }
+
+    @Test
+    void checkCompactionRebuildsSnapshotFromPreviousSnapshotAndJournal() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        int task1Id = journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, duration, time));
+        int epic1Id = journalManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        journalManager.compact();
+        int subtask1Id = journalManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1",
+                "Описание подзадачи 1", TaskStatuses.DONE, duration, time.plusHours(1)));
+        journalManager.updateTask(new Task(task1Id, "Задача 1", "Обновленная задача 1",
+                TaskStatuses.IN_PROGRESS, duration, time.plusHours(2)));
+        journalManager.updateEpic(new Epic(epic1Id, "Эпик 1", "Обновленный эпик 1"));
+        int task2Id = journalManager.addNewTask(new Task("Задача 2", "Описание задачи 2",
+                TaskStatuses.NEW, duration, time.plusHours(3)));
+        journalManager.deleteTask(task2Id);
+        journalManager.compact();
+        journalManager.close();
+        assertFalse(new File(file.getPath() + ".journal").exists());
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(journalManager.getTasksList(), restoredManager.getTasksList());
+        assertEquals("Обновленная задача 1", restoredManager.getTask(task1Id).getTaskDescription());
+        assertEquals("Обновленный эпик 1", restoredManager.getEpic(epic1Id).getTaskDescription());
+        assertEquals(TaskStatuses.DONE, restoredManager.getEpic(epic1Id).getStatus());
+        assertEquals(journalManager.getSubTask(subtask1Id), restoredManager.getSubTask(subtask1Id));
+        assertArrayEquals(journalManager.getPrioritizedTasks().toArray(),
+                restoredManager.getPrioritizedTasks().toArray());
+    }
+
+    @Test
+    void checkCompactionWithFsyncLeavesOnlySnapshotAndJournal() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        int task1Id = journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), time));
+        journalManager.compact();
+        int task2Id = journalManager.addNewTask(new Task("Задача 2", "Описание задачи 2", TaskStatuses.NEW,
+                Duration.ofMinutes(30), time.plusHours(1)));
+        journalManager.close();
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        assertFalse(new File(file.getPath() + ".journal.compacting").exists());
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+        assertEquals(1, Files.readAllLines(new File(file.getPath() + ".journal").toPath()).size());
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertEquals(journalManager.getTask(task1Id), restoredManager.getTask(task1Id));
+        assertEquals(journalManager.getTask(task2Id), restoredManager.getTask(task2Id));
+    }
+
+    @Test
+    void checkBackgroundCompactionFailureIsReportedOnClose() throws IOException, InterruptedException {
+        File file = File.createTempFile("test", ".CSV");
+        File blockedTempFile = new File(file.getPath() + ".tmp");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        journalManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), time));
+        assertTrue(blockedTempFile.mkdir());
+        journalManager.startCompaction(10, 1);
+        for (int i = 0; i < 100 && journalManager.getCompactionFailure() == null; i++) {
+            Thread.sleep(20);
+        }
+        assertNotNull(journalManager.getCompactionFailure());
+        assertThrows(ManagerSaveException.class, journalManager::close);
+        assertTrue(blockedTempFile.delete());
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL).getTasksList().size());
+    }
+
+    @Test
+    void checkGroupCommitKeepsAllConcurrentWrites() throws IOException, InterruptedException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.EVERY_WRITE, 0);
+        LocalDateTime time = LocalDateTime.of(2023, 3, 1, 9, 0);
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int writerNumber = i;
+            Thread writer = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    journalManager.addNewTask(new Task("Задача", "Описание задачи", TaskStatuses.NEW,
+                            Duration.ofMinutes(30), time.plusHours(writerNumber * 50L + j)));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        journalManager.close();
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertEquals(400, restoredManager.getTasksList().size());
+        assertArrayEquals(journalManager.getPrioritizedTasks().toArray(),
+                restoredManager.getPrioritizedTasks().toArray());
+    }
+
+    @Test
+    void checkIntervalFsyncPolicyFlushesJournalOnClose() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL,
+                FsyncPolicy.INTERVAL, 1000);
+        int epic1Id = journalManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        journalManager.updateEpic(new Epic(epic1Id, "Эпик 1", "Обновленное описание эпика 1"));
+        journalManager.close();
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file, StorageMode.JOURNAL);
+        assertEquals("Обновленное описание эпика 1", restoredManager.getEpic(epic1Id).getTaskDescription());
+    }
+
+    @Test
+    void checkBinaryFormatRestoresAllTaskTypes() throws IOException {
+        File file = File.createTempFile("test", ".bin");
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(file, FileFormat.BINARY);
+        Duration duration = Duration.ofMinutes(45);
+        LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 30);
+        int task1Id = binaryManager.addNewTask(new Task("Задача 1", "Описание, с запятой", TaskStatuses.NEW,
+                duration, time));
+        int epic1Id = binaryManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        int epic2Id = binaryManager.addNewEpic(new Epic("Эпик 2", ""));
+        int subtask1Id = binaryManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1", "Описание подзадачи 1",
+                TaskStatuses.DONE, duration, time.plusDays(400)));
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(binaryManager.getTask(task1Id), restoredManager.getTask(task1Id));
+        assertEquals(time, restoredManager.getTask(task1Id).getStartTime());
+        assertEquals(binaryManager.getSubTask(subtask1Id), restoredManager.getSubTask(subtask1Id));
+        assertEquals(binaryManager.getEpic(epic1Id).getEndTime(), restoredManager.getEpic(epic1Id).getEndTime());
+        assertEquals(TaskStatuses.DONE, restoredManager.getEpic(epic1Id).getStatus());
+        assertNull(restoredManager.getEpic(epic2Id).getStartTime());
+        restoredManager.addNewEpic(new Epic("Эпик 3", "Описание эпика 3"));
+        assertEquals(restoredManager.getEpicsList().size(),
+                FileBackedTaskManager.loadFromFile(file).getEpicsList().size());
+    }
+
+    @Test
+    void checkConvertDoesNotModifySourceSnapshotOrJournal() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        File journal = new File(file.getPath() + ".journal");
+        File binaryFile = File.createTempFile("test", ".bin");
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(file, StorageMode.JOURNAL);
+        LocalDateTime time = LocalDateTime.of(2022, 2, 2, 10, 0);
+        int epic1Id = journalManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        journalManager.compact();
+        journalManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1", "Описание подзадачи 1",
+                TaskStatuses.IN_PROGRESS, Duration.ofMinutes(30), time));
+        journalManager.close();
+        byte[] snapshot = Files.readAllBytes(file.toPath());
+        byte[] records = Files.readAllBytes(journal.toPath());
+        FileBackedTaskManager.convert(file, binaryFile, FileFormat.BINARY);
+        assertArrayEquals(snapshot, Files.readAllBytes(file.toPath()));
+        assertArrayEquals(records, Files.readAllBytes(journal.toPath()));
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(binaryFile);
+        assertEquals(1, restoredManager.getSubtasksList().size());
+        assertEquals(TaskStatuses.IN_PROGRESS, restoredManager.getEpic(epic1Id).getStatus());
+    }
+
+    @Test
+    void checkConvertBetweenCsvAndBinaryKeepsTasks() throws IOException {
+        File csvFile = taskManager.getPath().toFile();
+        File binaryFile = File.createTempFile("test", ".bin");
+        File restoredCsvFile = File.createTempFile("test", ".CSV");
+        LocalDateTime time = LocalDateTime.of(2022, 2, 2, 10, 0);
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        taskManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1", "Описание подзадачи 1",
+                TaskStatuses.IN_PROGRESS, Duration.ofMinutes(30), time));
+        taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), time.plusHours(1)));
+        FileBackedTaskManager.convert(csvFile, binaryFile, FileFormat.BINARY);
+        FileBackedTaskManager.convert(binaryFile, restoredCsvFile, FileFormat.CSV);
+        assertEquals(Files.readAllLines(csvFile.toPath()), Files.readAllLines(restoredCsvFile.toPath()));
+        assertTrue(Files.size(binaryFile.toPath()) < Files.size(csvFile.toPath()));
+    }
+
+    @Test
+    void checkLoadFromFileReadsWindowsLineEndingsWithoutTrailingNewLine() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        Files.writeString(file.toPath(), "id,type,name,status,description,epic,duration,startTime,endTime\r\n"
+                + "0,TASK,Задача 1,NEW,Описание задачи 1,30,01-02-2023 10:00\r\n"
+                + "1,EPIC,Эпик 1,DONE,Описание эпика 1,15,01-02-2023 11:00,01-02-2023 11:15\r\n"
+                + "2,SUBTASK,Подзадача 1,DONE,Описание подзадачи 1,1,15,01-02-2023 11:00");
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(LocalDateTime.of(2023, 2, 1, 10, 0), restoredManager.getTask(0).getStartTime());
+        assertEquals("Описание эпика 1", restoredManager.getEpic(1).getTaskDescription());
+        assertEquals(Duration.ofMinutes(15), restoredManager.getSubTask(2).getDuration());
+        assertEquals(3, restoredManager.addNewEpic(new Epic("Эпик 2", "Описание эпика 2")));
+    }
+
+    @Test
+    void checkLargeFileIsRestoredInParallelWithSameContent() throws IOException {
+        File file = File.createTempFile("test", ".CSV");
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 0, 0);
+        StringBuilder content = new StringBuilder("id,type,name,status,description,epic,duration,startTime,endTime\n");
+        int id = 0;
+        for (; id < 20000; id++) {
+            content.append(new Task(id, "Задача " + id, "Описание,\nзадачи " + id, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), time.plusHours(id)).toStringFile()).append("\n");
+        }
+        int epicId = id++;
+        Epic epic = new Epic(epicId, "Эпик", "Описание эпика");
+        epic.setStatus(TaskStatuses.NEW);
+        epic.setDuration(Duration.ofMinutes(0));
+        content.append(epic.toStringFile()).append("\n");
+        for (; id < 25001; id++) {
+            content.append(new Subtask(epicId, id, "Подзадача " + id, "Описание подзадачи " + id,
+                    TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(id)).toStringFile()).append("\n");
+        }
+        Files.writeString(file.toPath(), content);
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(20000, restoredManager.getTasksList().size());
+        assertEquals(5000, restoredManager.getEpic(epicId).getSubtaskIds().size());
+        assertEquals(25000, restoredManager.getPrioritizedTasks().size());
+        assertEquals("Задача 12345", restoredManager.getTask(12345).getTaskName());
+        assertEquals("Описание,\nзадачи 12345", restoredManager.getTask(12345).getTaskDescription());
+        assertEquals(time.plusHours(24000), restoredManager.getSubTask(24000).getStartTime());
+        assertEquals(id, restoredManager.addNewEpic(new Epic("Эпик 2", "Описание эпика 2")));
+    }
+
+    @Test
+    void checkNamesAndDescriptionsWithCommasQuotesAndNewLinesSurviveReload() {
+        File file = taskManager.getPath().toFile();
+        LocalDateTime time = LocalDateTime.of(2022, 2, 2, 10, 0);
+        int task1Id = taskManager.addNewTask(new Task("Задача, с запятой", "Описание \"в кавычках\"\nвторая строка",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time));
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик, 1", "Описание, эпика"));
+        int subtask1Id = taskManager.addNewSubtask(new Subtask(epic1Id, "\"Подзадача\"", "a,b,c",
+                TaskStatuses.DONE, Duration.ofMinutes(30), time.plusHours(1)));
+        FileBackedTaskManager restoredManager = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(taskManager.getTask(task1Id), restoredManager.getTask(task1Id));
+        assertEquals(taskManager.getEpic(epic1Id), restoredManager.getEpic(epic1Id));
+        assertEquals(taskManager.getEpic(epic1Id).getEndTime(), restoredManager.getEpic(epic1Id).getEndTime());
+        assertEquals(taskManager.getSubTask(subtask1Id), restoredManager.getSubTask(subtask1Id));
+    }
+}
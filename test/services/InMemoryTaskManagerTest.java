@@ -1,10 +1,28 @@
 package services;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tasks.Task;
+import tasks.TaskStatuses;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class InMemoryTaskManagerTest extends TaskManagerTest<TaskManager> {
     @BeforeEach
     public void initManager() {
         taskManager = Managers.getDefault();
     }
+
+    @Test
+    void checkManagerCanAddManyNonOverlappingTasks() {
+        LocalDateTime time = LocalDateTime.of(2000, 1, 1, 0, 0);
+        for (int i = 0; i < 100_000; i++) {
+            taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), time.plusMinutes(30L * i)));
+        }
+        assertEquals(100_000, taskManager.getPrioritizedTasks().size());
+    }
 }
\ No newline at end of file
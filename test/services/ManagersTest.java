@@ -3,6 +3,12 @@ package services;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
+import tasks.Task;
+import tasks.TaskStatuses;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 
 class ManagersTest {
     @Test
@@ -11,9 +17,45 @@ class ManagersTest {
         assertNotNull(taskManager);
     }
 
+    @Test
+    void createNewConcurrentTaskManager() {
+        TaskManager taskManager = Managers.getConcurrent();
+        assertNotNull(taskManager);
+    }
+
     @Test
     void createNewHistoryManager() {
         HistoryManager historyManager = Managers.getDefaultHistory();
         assertNotNull(historyManager);
     }
-}
\ No newline at end of file
+
+    @Test
+    void createNewBoundedHistoryManager() {
+        HistoryManager historyManager = Managers.getDefaultHistory(2);
+        for (int i = 0; i < 5; i++) {
+            historyManager.add(new Task(i, "Задача " + i, "Описание задачи " + i, TaskStatuses.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.now()));
+        }
+        List<Task> history = historyManager.getHistory();
+        assertEquals(2, history.size());
+        assertEquals(3, history.get(0).getTaskId());
+        assertEquals(4, history.get(1).getTaskId());
+    }
+
+    @Test
+    void createNewTaskManagerWithBoundedHistory() {
+        TaskManager taskManager = Managers.getDefault(1);
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 1, 10, 0)));
+        int task2Id = taskManager.addNewTask(new Task("Задача 2", "Описание задачи 2", TaskStatuses.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 1, 11, 0)));
+        taskManager.getTask(task1Id);
+        taskManager.getTask(task2Id);
+        assertEquals(List.of(taskManager.getTask(task2Id)), taskManager.getHistory());
+    }
+
+    @Test
+    void historyCapacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> Managers.getDefaultHistory(0));
+    }
+}
@@ -5,6 +5,7 @@ import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 import tasks.TaskStatuses;
+import tasks.TasksTypes;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -379,6 +380,22 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(1, history.size());
     }
 
+    @Test
+    void checkPeekDoesNotAddTaskToHistory() {
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2020, 11, 11, 16, 0);
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Простая задача 1", TaskStatuses.NEW,
+                duration, time));
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        int subtask1Id = taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.NEW, duration, time.plusHours(1)));
+        assertEquals(task1Id, taskManager.peekTask(task1Id).getTaskId());
+        assertEquals(epic1Id, taskManager.peekEpic(epic1Id).getTaskId());
+        assertEquals(subtask1Id, taskManager.peekSubtask(subtask1Id).getTaskId());
+        assertTrue(taskManager.getHistory().isEmpty());
+        assertThrows(NotFoundException.class, () -> taskManager.peekTask(epic1Id));
+    }
+
     @Test
     void checkHistoryManagerNotSaveDuplicates() {
         Duration duration = Duration.ofMinutes(30);
@@ -688,4 +705,97 @@ abstract class TaskManagerTest<T extends TaskManager> {
         List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
         assertEquals(1, prioritizedTasks.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkTaskThatCoversExistingTaskNotAddToManager() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+        taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time));
+        int task2Id = taskManager.addNewTask(new Task("Задача 2", "Описание задачи 2",
+                TaskStatuses.NEW, Duration.ofMinutes(120), time.minusMinutes(30)));
+        int task3Id = taskManager.addNewTask(new Task("Задача 3", "Описание задачи 3",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time.plusMinutes(30)));
+        assertEquals(-1, task2Id);
+        assertNotEquals(-1, task3Id);
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void checkListsAreReusedUntilManagerChanges() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time));
+        List<Task> tasks = taskManager.getTasksList();
+        List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
+        assertSame(tasks, taskManager.getTasksList());
+        assertSame(prioritizedTasks, taskManager.getPrioritizedTasks());
+        assertThrows(UnsupportedOperationException.class, () -> tasks.add(tasks.getFirst()));
+        taskManager.addNewTask(new Task("Задача 2", "Описание задачи 2",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(1)));
+        assertEquals(1, tasks.size());
+        assertEquals(2, taskManager.getTasksList().size());
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+        taskManager.deleteTask(task1Id);
+        assertEquals(1, taskManager.getTasksList().size());
+        int epicId = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        List<Subtask> subtasks = taskManager.getSubtasksList();
+        List<Task> tasksBeforeSubtask = taskManager.getTasksList();
+        assertTrue(subtasks.isEmpty());
+        taskManager.addNewSubtask(new Subtask(epicId, "Подзадача 1", "Описание подзадачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(2)));
+        assertNotSame(subtasks, taskManager.getSubtasksList());
+        assertEquals(1, taskManager.getSubtasksList().size());
+        assertEquals(taskManager.getSubtasksPage(0, 100), taskManager.getSubtasksList());
+        assertSame(tasksBeforeSubtask, taskManager.getTasksList());
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void checkTasksCanBeReadPageByPage() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        List<Integer> taskIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            taskIds.add(taskManager.addNewTask(new Task("Задача " + i, "Описание задачи " + i,
+                    TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(i))));
+            taskManager.addNewSubtask(new Subtask(epic1Id, "Подзадача " + i, "Описание подзадачи " + i,
+                    TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(i).plusMinutes(30)));
+        }
+        taskManager.deleteTask(taskIds.get(4));
+        List<Task> firstPage = taskManager.getTasksPage(0, 4);
+        assertEquals(taskIds.subList(0, 4), firstPage.stream().map(Task::getTaskId).toList());
+        List<Task> secondPage = taskManager.getTasksPage(firstPage.getLast().getTaskId() + 1, 4);
+        assertEquals(List.of(taskIds.get(5), taskIds.get(6), taskIds.get(7), taskIds.get(8)),
+                secondPage.stream().map(Task::getTaskId).toList());
+        assertEquals(1, taskManager.getTasksPage(secondPage.getLast().getTaskId() + 1, 4).size());
+        assertEquals(10, taskManager.getSubtasksPage(0, 100).size());
+        assertEquals(List.of(taskManager.getEpic(epic1Id)), taskManager.getEpicsPage(0, 100));
+        taskManager.deleteEpics();
+        assertTrue(taskManager.getSubtasksPage(0, 100).isEmpty());
+        assertTrue(taskManager.getEpicsPage(0, 100).isEmpty());
+    }
+
+    @Test
+    void checkVersionsGrowOnlyForModifiedCollections() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+        long initialVersion = taskManager.getVersion();
+        int task1Id = taskManager.addNewTask(new Task("Задача 1", "Описание задачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time));
+        long tasksVersion = taskManager.getVersion(TasksTypes.TASK);
+        assertTrue(taskManager.getVersion() > initialVersion);
+        assertEquals(taskManager.getVersion(), tasksVersion);
+        int epic1Id = taskManager.addNewEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        long epicsVersion = taskManager.getVersion(TasksTypes.EPIC);
+        taskManager.addNewSubtask(new Subtask(epic1Id, "Подзадача 1", "Описание подзадачи 1",
+                TaskStatuses.NEW, Duration.ofMinutes(30), time.plusHours(1)));
+        assertEquals(tasksVersion, taskManager.getVersion(TasksTypes.TASK));
+        assertTrue(taskManager.getVersion(TasksTypes.EPIC) > epicsVersion);
+        assertEquals(taskManager.getVersion(), taskManager.getVersion(TasksTypes.SUBTASK));
+        long version = taskManager.getVersion();
+        taskManager.getTask(task1Id);
+        taskManager.getTasksList();
+        assertEquals(version, taskManager.getVersion());
+        taskManager.deleteTask(task1Id);
+        assertTrue(taskManager.getVersion(TasksTypes.TASK) > version);
+    }
+}
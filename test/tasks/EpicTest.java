@@ -7,7 +7,9 @@ import services.TaskManager;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EpicTest {
@@ -37,4 +39,37 @@ class EpicTest {
         epic1.cleanSubtaskIds();
         assertTrue(epic1.getSubtaskIds().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void epicAggregatesFollowSubtaskChanges() {
+        TaskManager taskManager = Managers.getDefault();
+        Duration duration = Duration.ofMinutes(30);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Epic epic1 = new Epic("Эпик 1", "Сложный эпик 1");
+        int epic1Id = taskManager.addNewEpic(epic1);
+        int subtask1Id = taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.NEW, duration, time));
+        int subtask2Id = taskManager.addNewSubtask(new Subtask(epic1Id, "подзадача 2", "описание подзадачи 2",
+                TaskStatuses.DONE, duration, time.plusHours(2)));
+        assertEquals(TaskStatuses.IN_PROGRESS, epic1.getStatus());
+        assertEquals(Duration.ofMinutes(60), epic1.getDuration());
+        assertEquals(time, epic1.getStartTime());
+        assertEquals(time.plusHours(2).plus(duration), epic1.getEndTime());
+
+        taskManager.updateSubtask(new Subtask(epic1Id, subtask1Id, "подзадача 1", "описание подзадачи 1",
+                TaskStatuses.DONE, Duration.ofMinutes(10), time.plusHours(1)));
+        assertEquals(TaskStatuses.DONE, epic1.getStatus());
+        assertEquals(Duration.ofMinutes(40), epic1.getDuration());
+        assertEquals(time.plusHours(1), epic1.getStartTime());
+
+        taskManager.deleteSubtask(subtask2Id);
+        assertEquals(Duration.ofMinutes(10), epic1.getDuration());
+        assertEquals(time.plusHours(1).plusMinutes(10), epic1.getEndTime());
+
+        taskManager.deleteSubtask(subtask1Id);
+        assertEquals(TaskStatuses.NEW, epic1.getStatus());
+        assertEquals(Duration.ZERO, epic1.getDuration());
+        assertNull(epic1.getStartTime());
+        assertNull(epic1.getEndTime());
+    }
+}
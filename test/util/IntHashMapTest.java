@@ -0,0 +1,62 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntHashMapTest {
+    @Test
+    void mapIteratesSequentialKeysInAscendingOrder() {
+        IntHashMap<String> map = new IntHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "задача " + i);
+        }
+        List<String> values = new ArrayList<>(map.values());
+        assertEquals(100, values.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("задача " + i, values.get(i));
+        }
+    }
+
+    @Test
+    void mapBehavesLikeHashMapAfterRandomPutsAndRemoves() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        List<Integer> keys = new ArrayList<>();
+        map.forEachKey(keys::add);
+        assertEquals(expected.size(), keys.size());
+        assertTrue(expected.keySet().containsAll(keys));
+    }
+
+    @Test
+    void mapReplaceOnlyExistingKeysAndClear() {
+        IntHashMap<String> map = new IntHashMap<>();
+        assertNull(map.replace(1, "задача"));
+        assertFalse(map.containsKey(1));
+        map.put(1, "задача");
+        assertEquals("задача", map.replace(1, "новая задача"));
+        assertEquals("новая задача", map.get(1));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+}
@@ -0,0 +1,68 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkedIntSetTest {
+    @Test
+    void setKeepsInsertionOrderAfterRemoves() {
+        LinkedIntSet set = new LinkedIntSet();
+        for (int i = 100; i > 0; i--) {
+            set.addInt(i);
+        }
+        for (int i = 2; i <= 100; i += 2) {
+            assertTrue(set.removeInt(i));
+        }
+        assertFalse(set.removeInt(2));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 99; i > 0; i -= 2) {
+            expected.add(i);
+        }
+        assertEquals(expected, new ArrayList<>(set));
+    }
+
+    @Test
+    void setBehavesLikeLinkedHashSetAfterRandomAddsAndRemoves() {
+        LinkedIntSet set = new LinkedIntSet();
+        LinkedHashSet<Integer> expected = new LinkedHashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.remove(value), set.removeInt(value));
+            } else {
+                assertEquals(expected.add(value), set.addInt(value));
+            }
+        }
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+    }
+
+    @Test
+    void iteratorRemoveKeepsRemainingOrder() {
+        LinkedIntSet set = new LinkedIntSet();
+        for (int i = 0; i < 50; i++) {
+            set.addInt(i * 16);
+        }
+        Iterator<Integer> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 32 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(25, set.size());
+        int expected = 16;
+        for (int value : set) {
+            assertEquals(expected, value);
+            expected += 32;
+        }
+    }
+}